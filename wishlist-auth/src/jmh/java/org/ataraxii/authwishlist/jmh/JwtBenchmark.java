@@ -0,0 +1,66 @@
+package org.ataraxii.authwishlist.jmh;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ataraxii.authwishlist.database.entity.RoleType;
+import org.ataraxii.authwishlist.security.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Выпуск токенов при входе/обновлении и их разбор (extractAllClaims) в фильтре и refresh
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private final UUID userId = UUID.randomUUID();
+    private final List<RoleType> roles = List.of(RoleType.USER);
+
+    private JwtService jwtService;
+    private String accessToken;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "secret", "0123456789abcdef0123456789abcdef");
+        jwtService.init();
+        accessToken = jwtService.generateAccessToken("benchmark-user", userId, roles);
+        refreshToken = jwtService.generateRefreshToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken("benchmark-user", userId, roles);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(accessToken);
+    }
+
+    @Benchmark
+    public boolean validateRefreshToken() {
+        return jwtService.validateToken(refreshToken);
+    }
+}
@@ -40,6 +40,8 @@ public class SecurityConfig {
                 // Разрешаем доступ ко всем ресурсам внутри /auth (для регистрации или входа)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/auth/**").permitAll()
+                        // Проверка живости и сбор метрик Prometheus
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         // Все остальные запросы будут требовать аутентификацию
                         .anyRequest().authenticated()
                 )
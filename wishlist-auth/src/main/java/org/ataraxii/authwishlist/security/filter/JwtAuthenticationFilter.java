@@ -5,8 +5,10 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.ataraxii.logging.RequestMdcFilter;
 import org.ataraxii.authwishlist.security.service.CustomUserDetailsService;
 import org.ataraxii.authwishlist.security.service.JwtService;
+import org.slf4j.MDC;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -59,6 +61,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 );
                 // Добавляем в контекст информацию о том что мы аутентифицировали пользователя по токену
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                MDC.put(RequestMdcFilter.USERNAME, userDetails.getUsername());
             }
         }
         filterChain.doFilter(request, response);
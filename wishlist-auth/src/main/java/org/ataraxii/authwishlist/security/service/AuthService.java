@@ -1,5 +1,7 @@
 package org.ataraxii.authwishlist.security.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.ataraxii.authwishlist.database.entity.RefreshToken;
@@ -41,9 +43,9 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final MeterRegistry meterRegistry;
 
     public RegisterResponseDto register(RegisterRequestDto request) {
-        log.info("Попытка регистрации: username={}", request.getUsername());
         if (userRepository.existsByUsername(request.getUsername())) {
             log.warn("Ошибка регистрации: пользователь с именем '{}' уже существует", request.getUsername());
             throw new ConflictException("Пользователь с таким именем уже существует");
@@ -64,7 +66,7 @@ public class AuthService {
 
         userRepository.save(user);
 
-        log.info("Пользователь '{}' успешно зарегистрирован", user.getUsername());
+        log.info("Пользователь '{}' зарегистрирован", user.getUsername());
 
         return RegisterResponseDto.builder()
                 .username(user.getUsername())
@@ -74,13 +76,7 @@ public class AuthService {
 
     public LoginResponseDto login(LoginRequestDto request) {
         try {
-            log.info("Попытка входа: username='{}'", request.getUsername());
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getUsername(),
-                            request.getPassword()
-                    )
-            );
+            Authentication authentication = authenticate(request);
 
             User user = userRepository.findByUsername(authentication.getName())
                     .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
@@ -102,7 +98,7 @@ public class AuthService {
                             .build()
             );
 
-            log.info("Успешный вход: username='{}'", request.getUsername());
+            log.info("Успешный вход: username='{}'", user.getUsername());
             return new LoginResponseDto(accessToken, refreshToken);
         } catch (BadCredentialsException e) {
             log.warn("Ошибка входа: username='{}' неверный логин или пароль", request.getUsername());
@@ -113,6 +109,34 @@ public class AuthService {
         }
     }
 
+    // Проверка пароля (BCrypt) - самая дорогая часть входа, поэтому замеряется отдельно.
+    // Для несуществующего пользователя Spring сверяет пароль с фиктивным хэшем, и это время тоже сюда попадает
+    private Authentication authenticate(LoginRequestDto request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getUsername(),
+                            request.getPassword()
+                    )
+            );
+            outcome = "success";
+            return authentication;
+        } catch (BadCredentialsException e) {
+            outcome = "bad_credentials";
+            throw e;
+        } catch (DisabledException e) {
+            outcome = "disabled";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("auth.login.password-check")
+                    .description("Проверка логина и пароля при входе")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
     public RefreshResponseDto refresh(RefreshRequestDto request) {
         if (!jwtService.validateToken(request.getRefreshToken())) {
             throw new InvalidTokenException("Refresh токен недействителен");
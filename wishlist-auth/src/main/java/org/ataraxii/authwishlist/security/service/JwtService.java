@@ -3,7 +3,10 @@ package org.ataraxii.authwishlist.security.service;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.ataraxii.authwishlist.database.entity.RoleType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,9 +17,11 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
     private static final long ACCESS_TOKEN_VALIDITY_MS = 60 * 60 * 1000;
@@ -25,11 +30,25 @@ public class JwtService {
     @Value("${jwt.secret}")
     private String secret;
 
+    private final MeterRegistry meterRegistry;
+
     private SecretKey secretKey;
 
+    private Timer validTimer;
+    private Timer invalidTimer;
+
     @PostConstruct
     public void init() {
         secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        validTimer = verificationTimer("valid");
+        invalidTimer = verificationTimer("invalid");
+    }
+
+    private Timer verificationTimer(String outcome) {
+        return Timer.builder("auth.jwt.verification")
+                .description("Проверка подписи и разбор JWT")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     public String extractUsername(String token) {
@@ -42,11 +61,19 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        long start = System.nanoTime();
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(secretKey)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
@@ -0,0 +1,14 @@
+package org.ataraxii.common;
+
+import org.ataraxii.common.mapper.CursorMapper;
+import org.ataraxii.common.mapper.EtagMapper;
+import org.ataraxii.common.security.JwtService;
+import org.ataraxii.common.security.VerifiedTokenCache;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+// Сервисы сканируют только свои пакеты, поэтому общие бины подключаются автонастройкой
+@AutoConfiguration
+@Import({JwtService.class, VerifiedTokenCache.class, CursorMapper.class, EtagMapper.class})
+public class WishlistCommonAutoConfiguration {
+}
@@ -1,4 +1,4 @@
-package org.ataraxii.wishlist.dto.item;
+package org.ataraxii.common.dto.item;
 
 import lombok.Builder;
 import lombok.Data;
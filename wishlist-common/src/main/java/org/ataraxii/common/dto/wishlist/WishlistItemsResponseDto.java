@@ -1,10 +1,10 @@
-package org.ataraxii.wishlist.dto.wishlist;
+package org.ataraxii.common.dto.wishlist;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.ataraxii.wishlist.dto.item.ItemWishlistDto;
+import org.ataraxii.common.dto.item.ItemWishlistDto;
 
 import java.util.List;
 import java.util.UUID;
@@ -17,4 +17,5 @@ public class WishlistItemsResponseDto {
     private UUID id;
     private String name;
     private List<ItemWishlistDto> items;
+    private Long version;
 }
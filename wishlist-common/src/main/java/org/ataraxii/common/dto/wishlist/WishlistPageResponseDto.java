@@ -0,0 +1,17 @@
+package org.ataraxii.common.dto.wishlist;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WishlistPageResponseDto {
+    private List<WishlistResponseDto> items;
+    private String nextCursor;
+}
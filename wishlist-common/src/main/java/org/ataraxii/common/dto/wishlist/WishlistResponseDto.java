@@ -1,4 +1,4 @@
-package org.ataraxii.wishlist.dto.wishlist;
+package org.ataraxii.common.dto.wishlist;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -29,4 +29,12 @@ public class WishlistResponseDto {
     private Instant date;
 
     private boolean shared;
+
+    private Long version;
+
+    private int itemCount;
+
+    private long totalPrice;
+
+    private Instant lastModifiedAt;
 }
@@ -0,0 +1,8 @@
+package org.ataraxii.common.exception;
+
+// Курсор страницы не разбирается. Каждый сервис отвечает на него 400, как на свой BadRequestException
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
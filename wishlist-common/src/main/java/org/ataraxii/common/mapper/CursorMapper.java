@@ -0,0 +1,36 @@
+package org.ataraxii.common.mapper;
+
+import org.ataraxii.common.exception.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+// Курсор для keyset-пагинации: клиент получает непрозрачную строку и возвращает ее как есть.
+// Один класс на api-service и api-read-service: следующую страницу может отдать любой из них
+public class CursorMapper {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String toCursor(UUID lastId) {
+        ByteBuffer buffer = ByteBuffer.allocate(16)
+                .putLong(lastId.getMostSignificantBits())
+                .putLong(lastId.getLeastSignificantBits());
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    public UUID fromCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Некорректный курсор");
+        }
+        if (bytes.length != 16) {
+            throw new InvalidCursorException("Некорректный курсор");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,53 @@
+package org.ataraxii.common.mapper;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+// ETag строится из версии сущности (@Version), поэтому его можно получить одним легким запросом,
+// не загружая сущность и не собирая DTO. Формат общий для api-service и api-read-service:
+// If-None-Match с ETag от одного сервиса срабатывает и на другом
+public class EtagMapper {
+
+    private static final String VERSION_PREFIX = "\"v";
+
+    public String toEtag(long version) {
+        return VERSION_PREFIX + version + "\"";
+    }
+
+    // ETag страницы: хэш от пар (id, version) всех строк страницы и признака следующей страницы
+    public <T> String toPageEtag(List<T> rows, Function<T, UUID> id, Function<T, Long> version, boolean hasNext) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(24);
+            for (T row : rows) {
+                UUID rowId = id.apply(row);
+                buffer.clear();
+                buffer.putLong(rowId.getMostSignificantBits())
+                        .putLong(rowId.getLeastSignificantBits())
+                        .putLong(version.apply(row));
+                sha256.update(buffer.array());
+            }
+            sha256.update((byte) (hasNext ? 1 : 0));
+            return "\"p" + Base64.getUrlEncoder().withoutPadding().encodeToString(sha256.digest()) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    // Обратное к toEtag: версия из строгого ETag. null - это не ETag версии
+    public Long toVersion(String etag) {
+        if (!etag.startsWith(VERSION_PREFIX) || !etag.endsWith("\"") || etag.length() <= VERSION_PREFIX.length() + 1) {
+            return null;
+        }
+        try {
+            return Long.parseLong(etag.substring(VERSION_PREFIX.length(), etag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.ataraxii.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+public class JwtService {
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    private SecretKey secretKey;
+
+    // JwtParser неизменяем и потокобезопасен, поэтому собираем его один раз
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+    }
+
+    // Проверяет подпись и срок действия и за один разбор собирает принципала.
+    // Бросает JwtException, если токен недействителен или не содержит userId
+    public VerifiedToken parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+
+        String userIdString = claims.get("userId", String.class);
+        if (userIdString == null) {
+            log.warn("Ошибка чтения: JWT токен не содержит userId");
+            throw new MalformedJwtException("JWT токен не содержит userId");
+        }
+
+        List<GrantedAuthority> authorities = extractRoles(claims).stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+
+        JwtUser user = new JwtUser(UUID.fromString(userIdString), claims.getSubject(), authorities);
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(user, expiration != null ? expiration.toInstant() : null);
+    }
+
+    private List<String> extractRoles(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .map(String::valueOf)
+                .toList();
+    }
+
+    private Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token)
+                .getPayload();
+    }
+}
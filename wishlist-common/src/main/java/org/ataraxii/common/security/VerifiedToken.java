@@ -0,0 +1,10 @@
+package org.ataraxii.common.security;
+
+import java.time.Instant;
+
+public record VerifiedToken(JwtUser user, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
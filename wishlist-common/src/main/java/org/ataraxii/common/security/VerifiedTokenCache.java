@@ -0,0 +1,118 @@
+package org.ataraxii.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Кэш уже проверенных токенов: повторный запрос с тем же bearer-токеном не проверяет HMAC заново.
+// Ключ - SHA-256 от токена, сам токен в памяти не хранится. Запись живет не дольше срока действия токена
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+    private static final String VERIFICATION_TIMER = "wishlist.jwt.verification";
+
+    private final JwtService jwtService;
+    private final Clock clock;
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+    // замеряется только настоящая проверка подписи, попадания в кэш сюда не входят
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    public VerifiedTokenCache(JwtService jwtService,
+                              ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${jwt.cache.max-ttl:PT15M}") Duration maxTtl) {
+        this.jwtService = jwtService;
+        this.clock = Clock.systemUTC();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(clock, maxTtl))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.validTimer = verificationTimer(registry, "valid");
+        this.invalidTimer = verificationTimer(registry, "invalid");
+    }
+
+    public Optional<VerifiedToken> verify(String token) {
+        ByteBuffer key = digest(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && !cached.isExpired(clock.instant())) {
+            return Optional.of(cached);
+        }
+
+        long start = System.nanoTime();
+        try {
+            VerifiedToken verified = jwtService.parseToken(token);
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            cache.put(key, verified);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("Отклонен недействительный JWT токен: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Timer verificationTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder(VERIFICATION_TIMER)
+                .description("Проверка подписи и разбор JWT (промахи кэша)")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            // UTF-8, а не US-ASCII: иначе любой не-ASCII символ становится '?', и разные строки дают один ключ
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private record TokenExpiry(Clock clock, Duration maxTtl) implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            Duration ttl = maxTtl;
+            if (value.expiresAt() != null) {
+                Duration left = Duration.between(clock.instant(), value.expiresAt());
+                if (left.compareTo(ttl) < 0) {
+                    ttl = left.isNegative() ? Duration.ZERO : left;
+                }
+            }
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.ataraxii.common.mapper;
+
+import org.ataraxii.common.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorMapperTest {
+
+    private final CursorMapper cursorMapper = new CursorMapper();
+
+    @Test
+    void cursor_roundTrip_returnsSameId() {
+        UUID id = UUID.randomUUID();
+
+        String cursor = cursorMapper.toCursor(id);
+
+        assertEquals(id, cursorMapper.fromCursor(cursor));
+        assertFalse(cursor.contains(id.toString()));
+    }
+
+    @Test
+    void fromCursor_garbage_throwsInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> cursorMapper.fromCursor("not a cursor!"));
+        assertThrows(InvalidCursorException.class, () -> cursorMapper.fromCursor("AAAA"));
+    }
+}
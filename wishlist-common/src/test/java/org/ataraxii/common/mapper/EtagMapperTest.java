@@ -0,0 +1,24 @@
+package org.ataraxii.common.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EtagMapperTest {
+
+    private final EtagMapper etagMapper = new EtagMapper();
+
+    @Test
+    void version_roundTrip_returnsSameVersion() {
+        assertEquals("\"v7\"", etagMapper.toEtag(7));
+        assertEquals(7L, etagMapper.toVersion(etagMapper.toEtag(7)));
+    }
+
+    @Test
+    void toVersion_notVersionEtag_returnsNull() {
+        assertNull(etagMapper.toVersion("\"p0123\""));
+        assertNull(etagMapper.toVersion("\"v\""));
+        assertNull(etagMapper.toVersion("\"vabc\""));
+        assertNull(etagMapper.toVersion("v7"));
+    }
+}
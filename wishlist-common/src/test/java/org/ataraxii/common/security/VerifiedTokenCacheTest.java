@@ -0,0 +1,126 @@
+package org.ataraxii.common.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    private JwtService jwtService;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = spy(new JwtService());
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        jwtService.init();
+        cache = new VerifiedTokenCache(jwtService, new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                100, Duration.ofMinutes(15));
+    }
+
+    @Test
+    void verify_validToken_returnsPrincipal() {
+        UUID userId = UUID.randomUUID();
+        String token = token(userId, Instant.now().plusSeconds(3600));
+
+        Optional<VerifiedToken> verified = cache.verify(token);
+
+        assertTrue(verified.isPresent());
+        assertEquals(userId, verified.get().user().getUserId());
+        assertEquals("testuser", verified.get().user().getUsername());
+        assertEquals(1, verified.get().user().getAuthorities().size());
+    }
+
+    @Test
+    void verify_sameTokenTwice_parsesOnce() {
+        String token = token(UUID.randomUUID(), Instant.now().plusSeconds(3600));
+
+        cache.verify(token);
+        cache.verify(token);
+        cache.verify(token);
+
+        verify(jwtService, times(1)).parseToken(token);
+    }
+
+    @Test
+    void verify_invalidSignature_returnsEmptyAndIsNotCached() {
+        SecretKey otherKey = Keys.hmacShaKeyFor("fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8));
+        String token = Jwts.builder()
+                .subject("testuser")
+                .claim("userId", UUID.randomUUID().toString())
+                .expiration(Date.from(Instant.now().plusSeconds(3600)))
+                .signWith(otherKey)
+                .compact();
+
+        assertTrue(cache.verify(token).isEmpty());
+        assertTrue(cache.verify(token).isEmpty());
+        verify(jwtService, times(2)).parseToken(token);
+    }
+
+    @Test
+    void verify_expiredToken_returnsEmpty() {
+        String token = token(UUID.randomUUID(), Instant.now().minusSeconds(60));
+
+        assertTrue(cache.verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_tokenWithoutUserId_returnsEmpty() {
+        String token = Jwts.builder()
+                .subject("testuser")
+                .expiration(Date.from(Instant.now().plusSeconds(3600)))
+                .signWith(key)
+                .compact();
+
+        assertTrue(cache.verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_tokensDifferingInNonAsciiChar_doNotShareCacheEntry() {
+        UUID firstUser = UUID.randomUUID();
+        UUID secondUser = UUID.randomUUID();
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        // подпись не проверяется: нужен только разбор, который для строк ниже вернул бы разных пользователей
+        doReturn(verified(firstUser, expiresAt)).when(jwtService).parseToken("header.payload.é");
+        doReturn(verified(secondUser, expiresAt)).when(jwtService).parseToken("header.payload.ü");
+
+        assertEquals(firstUser, cache.verify("header.payload.é").orElseThrow().user().getUserId());
+        assertEquals(secondUser, cache.verify("header.payload.ü").orElseThrow().user().getUserId());
+        verify(jwtService).parseToken("header.payload.ü");
+    }
+
+    private static VerifiedToken verified(UUID userId, Instant expiresAt) {
+        return new VerifiedToken(new JwtUser(userId, "testuser", List.of()), expiresAt);
+    }
+
+    private String token(UUID userId, Instant expiresAt) {
+        return Jwts.builder()
+                .subject("testuser")
+                .claim("userId", userId.toString())
+                .claim("roles", List.of("USER"))
+                .issuedAt(new Date())
+                .expiration(Date.from(expiresAt))
+                .signWith(key)
+                .compact();
+    }
+}
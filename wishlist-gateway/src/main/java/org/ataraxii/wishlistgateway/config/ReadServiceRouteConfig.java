@@ -0,0 +1,30 @@
+package org.ataraxii.wishlistgateway.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+
+// GET-чтения вишлистов владельца - в api-read-service (WebFlux и R2DBC, модуль wishlist-read).
+// Включается явно (gateway.read-service.enabled=true), по умолчанию все идет в api-service.
+// id только из hex-цифр, поэтому /app/wishlists/export и записи сюда не попадают. Публичные
+// /shared/wishlists/{id} остаются в api-service: их кэш сбрасывают его же записи
+@Configuration
+@ConditionalOnProperty(name = "gateway.read-service.enabled", havingValue = "true")
+public class ReadServiceRouteConfig {
+
+	@Bean
+	public RouteLocator readServiceRoutes(RouteLocatorBuilder builder) {
+		return builder.routes()
+				.route("api-read-service", route -> route
+						// раньше маршрутов из application.yml (у них порядок 0)
+						.order(-1)
+						.method(HttpMethod.GET)
+						.and()
+						.path("/app/wishlists", "/app/wishlists/{wishlistId:[0-9a-fA-F-]+}")
+						.uri("lb://api-read-service"))
+				.build();
+	}
+}
@@ -0,0 +1,49 @@
+package org.ataraxii.wishlistgateway.config;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ReadServiceRouteConfigTests {
+
+	@Nested
+	@SpringBootTest
+	class Disabled {
+
+		@Autowired
+		private RouteLocator routeLocator;
+
+		@Test
+		void readRoute_notRegistered() {
+			assertFalse(routeIds(routeLocator).contains("api-read-service"));
+		}
+	}
+
+	@Nested
+	@SpringBootTest(properties = "gateway.read-service.enabled=true")
+	class Enabled {
+
+		@Autowired
+		private RouteLocator routeLocator;
+
+		@Test
+		void readRoute_registeredFirst() {
+			assertEquals("api-read-service", routeIds(routeLocator).get(0));
+		}
+	}
+
+	private static List<String> routeIds(RouteLocator routeLocator) {
+		return routeLocator.getRoutes()
+				.map(Route::getId)
+				.collectList()
+				.block();
+	}
+}
@@ -0,0 +1,93 @@
+package org.ataraxii.wishlistloadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Задержки по маршрутам в HdrHistogram (до минуты, 3 значащие цифры) и число ошибок.
+// Ошибка - не-2xx ответ или исключение клиента; ее задержка тоже попадает в гистограмму
+public class LatencyReport {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    public LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(MAX_LATENCY_NANOS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void record(Operation operation, long latencyNanos, boolean success) {
+        histograms.get(operation).recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    public void print(PrintStream out, Duration measured) {
+        out.printf(Locale.ROOT, "%-44s %9s %7s %9s %9s %9s %9s %9s%n",
+                "route", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        long total = 0;
+        for (Row row : rows(measured)) {
+            total += row.requests();
+            out.printf(Locale.ROOT, "%-44s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.route(), row.requests(), row.errors(), row.throughput(),
+                    row.p50(), row.p99(), row.p999(), row.max());
+        }
+        out.printf(Locale.ROOT, "%-44s %9d %7s %9.1f%n", "total", total, "", total / seconds(measured));
+    }
+
+    public void writeCsv(Path file, Duration measured) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("route,requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms,max_ms");
+        for (Row row : rows(measured)) {
+            lines.add(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f",
+                    row.route(), row.requests(), row.errors(), row.throughput(),
+                    row.p50(), row.p99(), row.p999(), row.max()));
+        }
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines);
+    }
+
+    private List<Row> rows(Duration measured) {
+        List<Row> rows = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long requests = histogram.getTotalCount();
+            rows.add(new Row(operation.getRoute(), requests, errors.get(operation).sum(),
+                    requests / seconds(measured),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        return rows;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1e9;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private record Row(String route, long requests, long errors, double throughput,
+                       double p50, double p99, double p999, double max) {
+    }
+}
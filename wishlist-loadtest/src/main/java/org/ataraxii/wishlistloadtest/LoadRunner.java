@@ -0,0 +1,87 @@
+package org.ataraxii.wishlistloadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Замкнутый цикл: concurrency потоков шлют запросы без пауз, каждый по кругу обходит своих пользователей.
+// Следующий запрос уходит только после ответа на предыдущий, поэтому при перегрузке растет задержка,
+// а не очередь - перцентили здесь оптимистичнее, чем у открытой нагрузки с фиксированной интенсивностью
+@Slf4j
+public class LoadRunner {
+
+    private final WishlistClient client;
+    private final List<VirtualUser> users;
+    private final int concurrency;
+
+    public LoadRunner(WishlistClient client, List<VirtualUser> users, int concurrency) {
+        this.client = client;
+        this.users = users;
+        this.concurrency = concurrency;
+    }
+
+    public LatencyReport run(Duration warmup, Duration duration) throws InterruptedException {
+        LatencyReport report = new LatencyReport();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int worker = 0; worker < concurrency; worker++) {
+            List<VirtualUser> own = new ArrayList<>();
+            for (int i = worker; i < users.size(); i += concurrency) {
+                own.add(users.get(i));
+            }
+            workers.add(Thread.ofPlatform()
+                    .name("load-" + worker)
+                    .start(() -> work(own, report, measureFrom, stopAt)));
+        }
+        log.info("Прогрев {}, замер {}", warmup, duration);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return report;
+    }
+
+    private void work(List<VirtualUser> own, LatencyReport report, long measureFrom, long stopAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int next = 0;
+        while (System.nanoTime() < stopAt) {
+            VirtualUser user = own.get(next++ % own.size());
+            Operation operation = Operation.pick(random);
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = WishlistClient.isSuccess(execute(operation, user, random));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.debug("{}: {}", operation.getRoute(), e.toString());
+                success = false;
+            }
+            if (start >= measureFrom) {
+                report.record(operation, System.nanoTime() - start, success);
+            }
+        }
+    }
+
+    private int execute(Operation operation, VirtualUser user, ThreadLocalRandom random) throws Exception {
+        return switch (operation) {
+            case LOGIN -> client.login(user);
+            case REFRESH -> client.refresh(user);
+            case LIST_WISHLISTS -> client.listWishlists(user);
+            case GET_WISHLIST -> client.getWishlist(user);
+            case CREATE_ITEM -> client.createItem(user);
+            case PATCH_ITEM -> client.patchItem(user);
+            case SHARED_VIEW -> client.sharedView(randomWishlist(random));
+        };
+    }
+
+    private UUID randomWishlist(ThreadLocalRandom random) {
+        return users.get(random.nextInt(users.size())).getWishlistId();
+    }
+}
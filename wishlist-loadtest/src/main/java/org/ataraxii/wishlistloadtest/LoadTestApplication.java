@@ -0,0 +1,79 @@
+package org.ataraxii.wishlistloadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Нагрузочный стенд: поднять все сервисы, завести пользователей с вишлистами, прогнать смесь запросов
+// через gateway и вывести пропускную способность и p50/p99/p999 по маршрутам
+@Slf4j
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        try (ServiceStack stack = new ServiceStack(config, httpClient)) {
+            stack.start();
+            WishlistClient client = new WishlistClient(httpClient, stack.gatewayUrl());
+
+            List<VirtualUser> users = prepareUsers(client, config);
+            LatencyReport report = new LoadRunner(client, users, config.concurrency())
+                    .run(config.warmup(), config.duration());
+
+            System.out.printf("%nusers=%d concurrency=%d duration=%s virtualThreads=%s%n",
+                    config.users(), config.concurrency(), config.duration(), config.virtualThreads());
+            report.print(System.out, config.duration());
+            Path csv = config.workDir().resolve("results")
+                    .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv");
+            report.writeCsv(csv, config.duration());
+            log.info("Результаты сохранены в {}", csv);
+        }
+    }
+
+    // Регистрация, вход, вишлист с товарами и открытая ссылка на него - параллельно, BCrypt при регистрации небыстрый
+    private static List<VirtualUser> prepareUsers(WishlistClient client, LoadTestConfig config) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < config.users(); i++) {
+            users.add(new VirtualUser("lt-" + runId + "-" + i, "password-" + i));
+        }
+
+        log.info("Подготовка {} пользователей", users.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(config.concurrency())) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (VirtualUser user : users) {
+                futures.add(executor.submit(() -> {
+                    expectSuccess("регистрация", client.register(user));
+                    expectSuccess("вход", client.login(user));
+                    expectSuccess("создание вишлиста", client.createWishlist(user));
+                    expectSuccess("создание товаров", client.createItems(user, config.itemsPerWishlist()));
+                    expectSuccess("открытие доступа", client.share(user));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return users;
+    }
+
+    private static void expectSuccess(String step, int status) {
+        if (!WishlistClient.isSuccess(status)) {
+            throw new IllegalStateException("Подготовка пользователя: " + step + " -> HTTP " + status);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.ataraxii.wishlistloadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+// Параметры прогона из системных свойств loadtest.* (задача loadTest передает их из -Ploadtest.*)
+public record LoadTestConfig(
+        Path discoveryJar,
+        Path gatewayJar,
+        Path authJar,
+        Path apiJar,
+        Path workDir,
+        int users,
+        int concurrency,
+        int itemsPerWishlist,
+        Duration warmup,
+        Duration duration,
+        List<String> jvmArgs,
+        boolean virtualThreads
+) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        LoadTestConfig config = new LoadTestConfig(
+                jar("discovery"),
+                jar("gateway"),
+                jar("auth"),
+                jar("api"),
+                Path.of(System.getProperty("loadtest.workDir", "build/loadtest")),
+                Integer.getInteger("loadtest.users", 100),
+                Integer.getInteger("loadtest.concurrency", 16),
+                Integer.getInteger("loadtest.items", 20),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Arrays.stream(System.getProperty("loadtest.jvmArgs", "-Xmx512m").split("\\s+"))
+                        .filter(arg -> !arg.isBlank())
+                        .toList(),
+                Boolean.getBoolean("loadtest.virtualThreads")
+        );
+        if (config.users < config.concurrency) {
+            throw new IllegalArgumentException("loadtest.users должно быть не меньше loadtest.concurrency: "
+                    + "у каждого потока нагрузки свои пользователи");
+        }
+        return config;
+    }
+
+    private static Path jar(String service) {
+        String path = System.getProperty("loadtest.jar." + service);
+        if (path == null) {
+            throw new IllegalArgumentException("Не задан loadtest.jar." + service + ", запускайте через gradle :wishlist-loadtest:loadTest");
+        }
+        return Path.of(path);
+    }
+}
@@ -0,0 +1,45 @@
+package org.ataraxii.wishlistloadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.random.RandomGenerator;
+
+// Смесь запросов прогона: в основном чтение своих вишлистов и открытые ссылки, реже запись и вход
+@Getter
+@RequiredArgsConstructor
+public enum Operation {
+
+    LOGIN("POST /auth/login", 3),
+    REFRESH("POST /auth/refresh", 5),
+    LIST_WISHLISTS("GET /app/wishlists", 25),
+    GET_WISHLIST("GET /app/wishlists/{id}", 25),
+    CREATE_ITEM("POST /app/wishlists/{id}/items", 10),
+    PATCH_ITEM("PATCH /app/wishlists/{id}/items/{itemId}", 12),
+    SHARED_VIEW("GET /shared/wishlists/{id}", 20);
+
+    private static final Operation[] VALUES = values();
+    private static final int TOTAL_WEIGHT = totalWeight();
+
+    private final String route;
+    private final int weight;
+
+    public static Operation pick(RandomGenerator random) {
+        int roll = random.nextInt(TOTAL_WEIGHT);
+        for (Operation operation : VALUES) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static int totalWeight() {
+        int total = 0;
+        for (Operation operation : values()) {
+            total += operation.weight;
+        }
+        return total;
+    }
+}
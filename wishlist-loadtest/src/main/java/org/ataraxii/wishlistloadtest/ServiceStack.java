@@ -0,0 +1,151 @@
+package org.ataraxii.wishlistloadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+
+// Discovery, gateway, auth и API на свободных портах, у auth и API - по своему встроенному PostgreSQL.
+// Eureka и балансировщик gateway настроены на секундные интервалы, иначе маршруты появляются через ~30 с
+@Slf4j
+public class ServiceStack implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final LoadTestConfig config;
+    private final HttpClient httpClient;
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private final String jwtSecret = UUID.randomUUID().toString().replace("-", "");
+
+    private ServiceProcess gateway;
+
+    public ServiceStack(LoadTestConfig config, HttpClient httpClient) {
+        this.config = config;
+        this.httpClient = httpClient;
+    }
+
+    public void start() throws IOException, InterruptedException {
+        EmbeddedPostgres authDb = EmbeddedPostgres.builder().start();
+        resources.add(authDb);
+        EmbeddedPostgres apiDb = EmbeddedPostgres.builder().start();
+        resources.add(apiDb);
+
+        ServiceProcess discovery = launch("discovery", config.discoveryJar(), List.of(
+                "--eureka.server.enable-self-preservation=false",
+                "--eureka.server.response-cache-update-interval-ms=1000",
+                "--eureka.server.wait-time-in-ms-when-sync-empty=0"));
+        discovery.awaitHealthy(httpClient, STARTUP_TIMEOUT);
+        List<String> eureka = eurekaClientArgs(discovery);
+
+        ServiceProcess auth = launch("auth", config.authJar(), concat(eureka, databaseArgs(authDb), List.of(
+                "--jwt.secret=" + jwtSecret,
+                "--spring.threads.virtual.enabled=" + config.virtualThreads())));
+        ServiceProcess api = launch("api", config.apiJar(), concat(eureka, databaseArgs(apiDb), List.of(
+                "--jwt.secret=" + jwtSecret,
+                "--spring.threads.virtual.enabled=" + config.virtualThreads())));
+        // Маршруты задаются целиком: список из application.yml при переопределении одного элемента заменяется
+        gateway = launch("gateway", config.gatewayJar(), concat(eureka, List.of(
+                "--spring.cloud.loadbalancer.cache.ttl=1s",
+                "--spring.cloud.gateway.routes[0].id=auth-service",
+                "--spring.cloud.gateway.routes[0].uri=lb://auth-service",
+                "--spring.cloud.gateway.routes[0].predicates[0]=Path=/auth/**",
+                "--spring.cloud.gateway.routes[1].id=api-service",
+                "--spring.cloud.gateway.routes[1].uri=lb://api-service",
+                "--spring.cloud.gateway.routes[1].predicates[0]=Path=/app/**,/shared/**,/wishlists/**")));
+        auth.awaitHealthy(httpClient, STARTUP_TIMEOUT);
+        api.awaitHealthy(httpClient, STARTUP_TIMEOUT);
+        gateway.awaitHealthy(httpClient, STARTUP_TIMEOUT);
+
+        // auth отвечает 400 на чужой refresh-токен, API - 401 без токена; 503 значит, что gateway еще не видит экземпляр
+        awaitRoute("auth", HttpRequest.newBuilder(URI.create(gatewayUrl() + "/auth/refresh"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"refreshToken\": \"probe\"}")), status -> status == 400);
+        awaitRoute("api", HttpRequest.newBuilder(URI.create(gatewayUrl() + "/app/wishlists")).GET(), status -> status == 401);
+    }
+
+    public String gatewayUrl() {
+        return gateway.baseUrl();
+    }
+
+    private ServiceProcess launch(String name, Path jar, List<String> args) throws IOException {
+        ServiceProcess process = ServiceProcess.start(name, jar, freePort(), config.jvmArgs(), args,
+                config.workDir().resolve("logs"));
+        resources.add(process);
+        return process;
+    }
+
+    private void awaitRoute(String name, HttpRequest.Builder request, IntPredicate routed) throws InterruptedException {
+        Instant deadline = Instant.now().plus(STARTUP_TIMEOUT);
+        int status = -1;
+        while (Instant.now().isBefore(deadline)) {
+            try {
+                status = httpClient.send(request.timeout(Duration.ofSeconds(5)).build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (routed.test(status)) {
+                    log.info("Gateway маршрутизирует запросы в {}", name);
+                    return;
+                }
+            } catch (IOException e) {
+                // gateway еще не принимает соединения
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Gateway не начал маршрутизировать в " + name + ", последний статус " + status);
+    }
+
+    private static List<String> eurekaClientArgs(ServiceProcess discovery) {
+        return List.of(
+                "--eureka.client.service-url.defaultZone=" + discovery.baseUrl() + "/eureka",
+                "--eureka.client.registry-fetch-interval-seconds=1",
+                "--eureka.client.initial-instance-info-replication-interval-seconds=1",
+                "--eureka.client.instance-info-replication-interval-seconds=1",
+                "--eureka.instance.lease-renewal-interval-in-seconds=1",
+                "--eureka.instance.hostname=localhost");
+    }
+
+    private static List<String> databaseArgs(EmbeddedPostgres database) {
+        return List.of(
+                "--spring.datasource.url=" + database.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.postgresql.Driver");
+    }
+
+    @SafeVarargs
+    private static List<String> concat(List<String>... parts) {
+        List<String> all = new ArrayList<>();
+        for (List<String> part : parts) {
+            all.addAll(part);
+        }
+        return all;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (int i = resources.size() - 1; i >= 0; i--) {
+            try {
+                resources.get(i).close();
+            } catch (Exception e) {
+                log.warn("Не удалось остановить ресурс стенда: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.ataraxii.wishlistloadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Зарегистрированный пользователь стенда. Во время прогона им пользуется только один поток нагрузки,
+// поэтому состояние не синхронизируется; wishlistId после подготовки не меняется и читается всеми (shared view)
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class VirtualUser {
+
+    private final String username;
+    private final String password;
+
+    private String accessToken;
+    private String refreshToken;
+    private UUID wishlistId;
+    private final List<UUID> itemIds = new ArrayList<>();
+}
@@ -0,0 +1,174 @@
+package org.ataraxii.wishlistloadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// HTTP-клиент стенда: все запросы идут через gateway. Методы возвращают статус ответа,
+// а нужное для следующих запросов (токены, id) сохраняют в VirtualUser
+@Slf4j
+public class WishlistClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int LOGGED_FAILURES = 20;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String gatewayUrl;
+    private final AtomicInteger loggedFailures = new AtomicInteger();
+
+    public WishlistClient(HttpClient httpClient, String gatewayUrl) {
+        this.httpClient = httpClient;
+        this.gatewayUrl = gatewayUrl;
+    }
+
+    public int register(VirtualUser user) throws IOException, InterruptedException {
+        return send(post("/auth/register", credentials(user), null)).statusCode();
+    }
+
+    public int login(VirtualUser user) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/auth/login", credentials(user), null));
+        if (isSuccess(response)) {
+            storeTokens(user, response);
+        }
+        return response.statusCode();
+    }
+
+    public int refresh(VirtualUser user) throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode().put("refreshToken", user.getRefreshToken());
+        HttpResponse<String> response = send(post("/auth/refresh", body, null));
+        if (isSuccess(response)) {
+            storeTokens(user, response);
+        }
+        return response.statusCode();
+    }
+
+    public int createWishlist(VirtualUser user) throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode().put("name", "wishlist of " + user.getUsername());
+        HttpResponse<String> response = send(post("/app/wishlists", body, user));
+        if (isSuccess(response)) {
+            user.setWishlistId(UUID.fromString(json(response).get("id").asText()));
+        }
+        return response.statusCode();
+    }
+
+    public int createItems(VirtualUser user, int count) throws IOException, InterruptedException {
+        ArrayNode items = objectMapper.createArrayNode();
+        for (int i = 0; i < count; i++) {
+            items.add(item("item " + i));
+        }
+        ObjectNode body = objectMapper.createObjectNode().set("items", items);
+        HttpResponse<String> response = send(post("/app/wishlists/" + user.getWishlistId() + "/items/batch", body, user));
+        if (isSuccess(response)) {
+            for (JsonNode result : json(response).get("results")) {
+                JsonNode item = result.get("item");
+                if (item != null && !item.isNull()) {
+                    user.getItemIds().add(UUID.fromString(item.get("id").asText()));
+                }
+            }
+        }
+        return response.statusCode();
+    }
+
+    public int share(VirtualUser user) throws IOException, InterruptedException {
+        return send(request("/wishlists/share/" + user.getWishlistId(), user)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())).statusCode();
+    }
+
+    public int listWishlists(VirtualUser user) throws IOException, InterruptedException {
+        return send(request("/app/wishlists", user).GET()).statusCode();
+    }
+
+    public int getWishlist(VirtualUser user) throws IOException, InterruptedException {
+        return send(request("/app/wishlists/" + user.getWishlistId(), user).GET()).statusCode();
+    }
+
+    public int createItem(VirtualUser user) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/app/wishlists/" + user.getWishlistId() + "/items",
+                item("new item"), user));
+        if (isSuccess(response)) {
+            user.getItemIds().add(UUID.fromString(json(response).get("id").asText()));
+        }
+        return response.statusCode();
+    }
+
+    public int patchItem(VirtualUser user) throws IOException, InterruptedException {
+        UUID itemId = user.getItemIds().get(ThreadLocalRandom.current().nextInt(user.getItemIds().size()));
+        ObjectNode body = item("renamed item");
+        return send(request("/app/wishlists/" + user.getWishlistId() + "/items/" + itemId, user)
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body.toString()))).statusCode();
+    }
+
+    public int sharedView(UUID wishlistId) throws IOException, InterruptedException {
+        return send(request("/shared/wishlists/" + wishlistId, null).GET()).statusCode();
+    }
+
+    public static boolean isSuccess(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    private ObjectNode credentials(VirtualUser user) {
+        return objectMapper.createObjectNode()
+                .put("username", user.getUsername())
+                .put("password", user.getPassword());
+    }
+
+    private ObjectNode item(String name) {
+        int n = ThreadLocalRandom.current().nextInt(100_000);
+        return objectMapper.createObjectNode()
+                .put("name", name + " " + n)
+                .put("url", "https://market.example.com/product/" + n)
+                .put("price", 100 + n % 10_000);
+    }
+
+    private HttpRequest.Builder post(String path, JsonNode body, VirtualUser user) {
+        return request(path, user)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+    }
+
+    private HttpRequest.Builder request(String path, VirtualUser user) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .timeout(REQUEST_TIMEOUT);
+        if (user != null) {
+            builder.header("Authorization", "Bearer " + user.getAccessToken());
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpRequest built = request.build();
+        HttpResponse<String> response = httpClient.send(built, HttpResponse.BodyHandlers.ofString());
+        if (!isSuccess(response) && loggedFailures.incrementAndGet() <= LOGGED_FAILURES) {
+            log.warn("{} {} -> {}: {}", built.method(), built.uri().getPath(), response.statusCode(), response.body());
+        }
+        return response;
+    }
+
+    private void storeTokens(VirtualUser user, HttpResponse<String> response) throws IOException {
+        JsonNode tokens = json(response);
+        user.setAccessToken(tokens.get("accessToken").asText());
+        user.setRefreshToken(tokens.get("refreshToken").asText());
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return isSuccess(response.statusCode());
+    }
+}
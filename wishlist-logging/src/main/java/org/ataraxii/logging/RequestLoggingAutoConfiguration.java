@@ -0,0 +1,21 @@
+package org.ataraxii.logging;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+// Сервисы сканируют только свои пакеты, поэтому фильтр подключается автонастройкой.
+// Первым в цепочке: requestId должен быть в MDC у всех строк запроса
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestLoggingAutoConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<RequestMdcFilter> requestMdcFilter() {
+        FilterRegistrationBean<RequestMdcFilter> registration = new FilterRegistrationBean<>(new RequestMdcFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,83 @@
+package org.ataraxii.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Пропускает только долю INFO/DEBUG событий выбранных категорий (логгер или пакет).
+// WARN, ERROR и события с исключением пишутся всегда.
+// Решение принимается по requestId из MDC, поэтому строки одного запроса либо пишутся все, либо не пишутся.
+// Настраивается в logback-spring.xml сервиса: <category>org.ataraxii.wishlist.service=0.1</category>
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final Map<String, Double> rates = new ConcurrentHashMap<>();
+
+    // Ставка для конкретного логгера по самому длинному подходящему префиксу, кэшируется
+    private final Map<String, Optional<Double>> resolved = new ConcurrentHashMap<>();
+
+    public void addCategory(String category) {
+        int separator = category.lastIndexOf('=');
+        if (separator <= 0) {
+            addError("Категория сэмплирования должна иметь вид <логгер>=<доля>: " + category);
+            return;
+        }
+        String name = category.substring(0, separator).trim();
+        double rate;
+        try {
+            rate = Double.parseDouble(category.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            addError("Неверная доля сэмплирования для категории " + name, e);
+            return;
+        }
+        rates.put(name, Math.max(0.0, Math.min(1.0, rate)));
+        resolved.clear();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null - это проверка isInfoEnabled() или fluent API: решаем только по самому событию
+        if (!isStarted() || format == null || t != null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Double rate = resolved.computeIfAbsent(logger.getName(), this::resolveRate).orElse(null);
+        if (rate == null || rate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        return sample() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Optional<Double> resolveRate(String loggerName) {
+        String best = null;
+        for (String name : rates.keySet()) {
+            boolean matches = loggerName.equals(name) || loggerName.startsWith(name + ".");
+            if (matches && (best == null || name.length() > best.length())) {
+                best = name;
+            }
+        }
+        return Optional.ofNullable(best).map(rates::get);
+    }
+
+    private double sample() {
+        String requestId = MDC.get(RequestMdcFilter.REQUEST_ID);
+        if (requestId == null) {
+            return ThreadLocalRandom.current().nextDouble();
+        }
+        // Перемешиваем хэш (финализатор MurmurHash3): у похожих id вроде req-1, req-2 он почти одинаковый
+        int hash = requestId.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (hash >>> 1) / (double) (1L << 31);
+    }
+}
@@ -0,0 +1,92 @@
+package org.ataraxii.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger serviceLogger = context.getLogger("org.ataraxii.wishlist.service.ItemService");
+    private final Logger jobLogger = context.getLogger("org.ataraxii.wishlist.service.job.SummaryJob");
+    private final Logger otherLogger = context.getLogger("org.ataraxii.wishlist.servicex.Other");
+
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.addCategory("org.ataraxii.wishlist.service=0");
+        filter.addCategory("org.ataraxii.wishlist.service.job=1.0");
+        filter.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void decide_infoInSampledCategory_denied() {
+        assertEquals(FilterReply.DENY, decide(serviceLogger, Level.INFO, null));
+        assertEquals(FilterReply.DENY, decide(serviceLogger, Level.DEBUG, null));
+    }
+
+    @Test
+    void decide_warnAndErrors_alwaysPass() {
+        assertEquals(FilterReply.NEUTRAL, decide(serviceLogger, Level.WARN, null));
+        assertEquals(FilterReply.NEUTRAL, decide(serviceLogger, Level.ERROR, null));
+        assertEquals(FilterReply.NEUTRAL, decide(serviceLogger, Level.INFO, new IllegalStateException()));
+    }
+
+    @Test
+    void decide_longestPrefixWins_andMatchesOnPackageBoundary() {
+        assertEquals(FilterReply.NEUTRAL, decide(jobLogger, Level.INFO, null));
+        assertEquals(FilterReply.NEUTRAL, decide(otherLogger, Level.INFO, null));
+    }
+
+    @Test
+    void decide_levelCheckWithoutFormat_notSampled() {
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, serviceLogger, Level.INFO, null, null, null));
+    }
+
+    @Test
+    void decide_sameRequestId_sameDecisionForAllLines() {
+        filter.addCategory("org.ataraxii.wishlist.service=0.5");
+
+        int kept = 0;
+        for (int i = 0; i < 1000; i++) {
+            // последовательные id: у них почти одинаковый String.hashCode
+            MDC.put(RequestMdcFilter.REQUEST_ID, "req-" + i);
+            FilterReply first = decide(serviceLogger, Level.INFO, null);
+            for (int line = 0; line < 5; line++) {
+                assertEquals(first, decide(serviceLogger, Level.INFO, null));
+            }
+            if (first == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertTrue(kept > 400 && kept < 600, "пропущено " + kept + " из 1000");
+    }
+
+    @Test
+    void addCategory_invalidRate_ignored() {
+        filter.addCategory("org.ataraxii.wishlist.service.ItemService=abc");
+
+        assertEquals(FilterReply.DENY, decide(serviceLogger, Level.INFO, null));
+    }
+
+    private FilterReply decide(Logger logger, Level level, Throwable t) {
+        return filter.decide(null, logger, level, "Предмет с id='{}' создан", new Object[]{UUID.randomUUID()}, t);
+    }
+}
@@ -0,0 +1,13 @@
+package org.ataraxii.readwishlist;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReadWishlistApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReadWishlistApplication.class, args);
+    }
+
+}
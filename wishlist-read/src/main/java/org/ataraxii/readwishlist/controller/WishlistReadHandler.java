@@ -0,0 +1,104 @@
+package org.ataraxii.readwishlist.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.ataraxii.common.dto.item.ItemWishlistDto;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.common.mapper.EtagMapper;
+import org.ataraxii.common.security.JwtUser;
+import org.ataraxii.readwishlist.database.WishlistRow;
+import org.ataraxii.readwishlist.exception.BadRequestException;
+import org.ataraxii.readwishlist.exception.UnauthorizedException;
+import org.ataraxii.readwishlist.service.WishlistReadService;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// Ответы и ETag те же, что у WishlistController в api-service
+@Component
+@RequiredArgsConstructor
+public class WishlistReadHandler {
+
+    private final WishlistReadService wishlistReadService;
+    private final EtagMapper etagMapper;
+
+    // ETag страницы считается по уже загруженным строкам: отдельный запрос версий, как в api-service,
+    // здесь не окупается - ожидание БД не держит поток
+    public Mono<ServerResponse> findAllWishlists(ServerRequest request) {
+        String cursor = request.queryParam("cursor").orElse(null);
+        return currentUserId(request)
+                .flatMap(userId -> wishlistReadService.findAllWishlists(userId, cursor, limit(request)))
+                .flatMap(page -> {
+                    String etag = etagMapper.toPageEtag(page.getItems(), WishlistResponseDto::getId,
+                            WishlistResponseDto::getVersion, page.getNextCursor() != null);
+                    return request.checkNotModified(etag)
+                            .switchIfEmpty(Mono.defer(() -> ServerResponse.ok().eTag(etag).bodyValue(page)));
+                });
+    }
+
+    // Версия берется из строки вишлиста, и при совпадении с If-None-Match предметы не загружаются
+    public Mono<ServerResponse> findWishlistById(ServerRequest request) {
+        return ownedWishlist(request)
+                .flatMap(wishlist -> {
+                    String etag = etagMapper.toEtag(wishlist.version());
+                    return request.checkNotModified(etag)
+                            .switchIfEmpty(Mono.defer(() -> wishlistReadService.findWishlistWithItems(wishlist)
+                                    .flatMap(body -> ServerResponse.ok().eTag(etag).bodyValue(body))));
+                });
+    }
+
+    // Accept: application/x-ndjson - предметы по одному в строке, по мере чтения из БД. Запись в сокет
+    // запрашивает следующие строки, поэтому большой список не собирается в памяти целиком.
+    // Владелец проверяется до начала ответа: ошибка посреди потока уже не могла бы сменить статус
+    public Mono<ServerResponse> streamWishlistItems(ServerRequest request) {
+        return ownedWishlist(request)
+                .flatMap(wishlist -> {
+                    String etag = etagMapper.toEtag(wishlist.version());
+                    return request.checkNotModified(etag)
+                            .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                                    .eTag(etag)
+                                    .contentType(MediaType.APPLICATION_NDJSON)
+                                    .body(wishlistReadService.streamItems(wishlist), ItemWishlistDto.class)));
+                });
+    }
+
+    private Mono<WishlistRow> ownedWishlist(ServerRequest request) {
+        return currentUserId(request)
+                .zipWith(wishlistId(request))
+                .flatMap(ids -> wishlistReadService.findWishlist(ids.getT1(), ids.getT2()));
+    }
+
+    private Mono<UUID> currentUserId(ServerRequest request) {
+        return request.principal()
+                .filter(principal -> principal instanceof Authentication authentication
+                        && authentication.getPrincipal() instanceof JwtUser)
+                .map(principal -> ((JwtUser) ((Authentication) principal).getPrincipal()).getUserId())
+                .switchIfEmpty(Mono.error(() -> new UnauthorizedException("Пользователь не аутентифицирован")));
+    }
+
+    private static Mono<UUID> wishlistId(ServerRequest request) {
+        return Mono.fromCallable(() -> {
+            try {
+                return UUID.fromString(request.pathVariable("wishlistId"));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Некорректный id вишлиста");
+            }
+        });
+    }
+
+    private static Integer limit(ServerRequest request) {
+        return request.queryParam("limit")
+                .map(limit -> {
+                    try {
+                        return Integer.valueOf(limit);
+                    } catch (NumberFormatException e) {
+                        throw new BadRequestException("Некорректный размер страницы");
+                    }
+                })
+                .orElse(null);
+    }
+}
@@ -0,0 +1,47 @@
+package org.ataraxii.readwishlist.controller;
+
+import org.ataraxii.common.exception.InvalidCursorException;
+import org.ataraxii.readwishlist.exception.BadRequestException;
+import org.ataraxii.readwishlist.exception.NotFoundException;
+import org.ataraxii.readwishlist.exception.UnauthorizedException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+// Те же URL, что у WishlistController в api-service, но только чтение: записи шлюз сюда не направляет.
+// Публичные /shared/wishlists/{id} отдает только api-service: их кэш сбрасывают его же записи.
+// Ошибки в том же виде, что у GlobalExceptionHandler
+@Configuration
+public class WishlistReadRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> wishlistReadRoutes(WishlistReadHandler handler) {
+        // Поток только при явном application/x-ndjson: RequestPredicates.accept пропустил бы и */*
+        RequestPredicate ndjson = request -> request.headers().accept().stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        return route()
+                .GET("/app/wishlists", handler::findAllWishlists)
+                .GET("/app/wishlists/{wishlistId}", ndjson, handler::streamWishlistItems)
+                .GET("/app/wishlists/{wishlistId}", handler::findWishlistById)
+                .onError(BadRequestException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e))
+                .onError(InvalidCursorException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e))
+                .onError(NotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, e))
+                .onError(UnauthorizedException.class, (e, request) -> error(HttpStatus.UNAUTHORIZED, e))
+                .build();
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, Throwable e) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("message", e.getMessage()));
+    }
+}
@@ -0,0 +1,36 @@
+package org.ataraxii.readwishlist.database;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class WishlistItemReadRepository {
+
+    private static final int FETCH_SIZE = 256;
+
+    private final DatabaseClient databaseClient;
+
+    // С fetchSize драйвер читает результат порциями и запрашивает следующую только по спросу подписчика:
+    // медленный клиент останавливает чтение из БД, а не копит строки в памяти
+    public Flux<WishlistItemRow> streamByWishlistId(UUID wishlistId) {
+        return databaseClient.sql("""
+                        select i.id, i.name, i.url
+                        from item_wishlist iw
+                        join item i on i.id = iw.item_id
+                        where iw.wishlist_id = :wishlistId
+                        order by iw.id
+                        """)
+                .bind("wishlistId", wishlistId)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(row -> new WishlistItemRow(
+                        row.get("id", UUID.class),
+                        row.get("name", String.class),
+                        row.get("url", String.class)))
+                .all();
+    }
+}
@@ -0,0 +1,11 @@
+package org.ataraxii.readwishlist.database;
+
+import java.util.UUID;
+
+// Предмет в составе вишлиста: ровно поля ItemWishlistDto
+public record WishlistItemRow(
+        UUID id,
+        String name,
+        String url
+) {
+}
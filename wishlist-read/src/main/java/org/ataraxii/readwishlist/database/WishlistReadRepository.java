@@ -0,0 +1,19 @@
+package org.ataraxii.readwishlist.database;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// Те же запросы, что у WishlistRepository в api-service, но через R2DBC. Методов записи нет
+public interface WishlistReadRepository extends Repository<WishlistRow, UUID> {
+
+    Mono<WishlistRow> findByIdAndUserId(UUID id, UUID userId);
+
+    // Keyset-пагинация
+    Flux<WishlistRow> findByUserIdOrderByIdAsc(UUID userId, Limit limit);
+
+    Flux<WishlistRow> findByUserIdAndIdGreaterThanOrderByIdAsc(UUID userId, UUID id, Limit limit);
+}
@@ -0,0 +1,23 @@
+package org.ataraxii.readwishlist.database;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Строка таблицы wishlist. Только чтение: схему, версию и сводку ведет api-service
+@Table("wishlist")
+public record WishlistRow(
+        @Id UUID id,
+        String name,
+        String comment,
+        Instant date,
+        boolean shared,
+        UUID userId,
+        Long version,
+        int itemCount,
+        long totalPrice,
+        Instant updatedAt
+) {
+}
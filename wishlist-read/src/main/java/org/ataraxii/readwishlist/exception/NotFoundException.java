@@ -0,0 +1,7 @@
+package org.ataraxii.readwishlist.exception;
+
+public class NotFoundException extends RuntimeException {
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
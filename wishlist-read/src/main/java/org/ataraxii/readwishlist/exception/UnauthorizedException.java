@@ -0,0 +1,7 @@
+package org.ataraxii.readwishlist.exception;
+
+public class UnauthorizedException extends RuntimeException {
+    public UnauthorizedException(String message) {
+        super(message);
+    }
+}
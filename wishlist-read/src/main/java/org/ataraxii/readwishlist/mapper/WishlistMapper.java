@@ -0,0 +1,44 @@
+package org.ataraxii.readwishlist.mapper;
+
+import org.ataraxii.common.dto.item.ItemWishlistDto;
+import org.ataraxii.common.dto.wishlist.WishlistItemsResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.readwishlist.database.WishlistItemRow;
+import org.ataraxii.readwishlist.database.WishlistRow;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class WishlistMapper {
+    public WishlistResponseDto toDto(WishlistRow row) {
+        return WishlistResponseDto.builder()
+                .id(row.id())
+                .name(row.name())
+                .comment(row.comment())
+                .date(row.date())
+                .shared(row.shared())
+                .version(row.version())
+                .itemCount(row.itemCount())
+                .totalPrice(row.totalPrice())
+                .lastModifiedAt(row.updatedAt())
+                .build();
+    }
+
+    public WishlistItemsResponseDto toDtoWithItems(WishlistRow row, List<ItemWishlistDto> items) {
+        return WishlistItemsResponseDto.builder()
+                .id(row.id())
+                .name(row.name())
+                .items(items)
+                .version(row.version())
+                .build();
+    }
+
+    public ItemWishlistDto toItemWishlistDto(WishlistItemRow row) {
+        return ItemWishlistDto.builder()
+                .id(row.id())
+                .name(row.name())
+                .url(row.url())
+                .build();
+    }
+}
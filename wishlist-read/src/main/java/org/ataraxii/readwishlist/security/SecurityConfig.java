@@ -0,0 +1,98 @@
+package org.ataraxii.readwishlist.security;
+
+import lombok.RequiredArgsConstructor;
+import org.ataraxii.common.security.VerifiedToken;
+import org.ataraxii.common.security.VerifiedTokenCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Аналог SecurityConfig и JwtAuthenticationFilter из api-service: токены выпускает auth-service с тем же секретом
+@Configuration
+@EnableWebFluxSecurity
+@RequiredArgsConstructor
+public class SecurityConfig {
+
+    private static final List<String> ALLOWED_ORIGINS = List.of("http://194.87.74.158", "http://localhost:3000");
+
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"error\":\"UNAUTHORIZED\",\"message\":\"Пользователь не авторизован\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        // Токен проверяется уже в конвертере. Без токена или с неверным запрос идет дальше анонимным,
+        // как в JwtAuthenticationFilter api-service: открыт только actuator, остальные получат 401
+        ReactiveAuthenticationManager verified = Mono::just;
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(verified);
+        jwtFilter.setServerAuthenticationConverter(exchange -> Mono.justOrEmpty(bearerToken(exchange.getRequest().getHeaders())));
+        jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint((exchange, e) -> unauthorized(exchange.getResponse())))
+                .authorizeExchange(auth -> auth
+                        .pathMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .cors(Customizer.withDefaults())
+                .build();
+    }
+
+    // Экземпляр только читает, поэтому из методов разрешен один GET
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(ALLOWED_ORIGINS);
+        configuration.addAllowedMethod("GET");
+        configuration.addAllowedHeader("*");
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    private Authentication bearerToken(HttpHeaders headers) {
+        String authHeader = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        return verifiedTokenCache.verify(authHeader.substring(7))
+                .map(VerifiedToken::user)
+                .map(user -> new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()))
+                .orElse(null);
+    }
+
+    private static Mono<Void> unauthorized(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(UNAUTHORIZED_BODY)));
+    }
+}
@@ -0,0 +1,90 @@
+package org.ataraxii.readwishlist.service;
+
+import lombok.RequiredArgsConstructor;
+import org.ataraxii.common.dto.item.ItemWishlistDto;
+import org.ataraxii.common.dto.wishlist.WishlistItemsResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistPageResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.common.mapper.CursorMapper;
+import org.ataraxii.readwishlist.database.WishlistItemReadRepository;
+import org.ataraxii.readwishlist.database.WishlistReadRepository;
+import org.ataraxii.readwishlist.database.WishlistRow;
+import org.ataraxii.readwishlist.exception.BadRequestException;
+import org.ataraxii.readwishlist.exception.NotFoundException;
+import org.ataraxii.readwishlist.mapper.WishlistMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+// Чтения WishlistService из api-service: те же ответы и ошибки, но через R2DBC и без блокировок.
+// Транзакций нет - каждый ответ собирается не больше чем из двух одиночных запросов
+@Service
+@RequiredArgsConstructor
+public class WishlistReadService {
+
+    private final WishlistReadRepository wishlistReadRepository;
+    private final WishlistItemReadRepository wishlistItemReadRepository;
+    private final WishlistMapper wishlistMapper;
+    private final CursorMapper cursorMapper;
+
+    @Value("${wishlist.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${wishlist.page.max-size:100}")
+    private int maxPageSize;
+
+    public Mono<WishlistPageResponseDto> findAllWishlists(UUID userId, String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = resolvePageSize(limit);
+
+            // Запрашиваем на одну запись больше, чтобы узнать, есть ли следующая страница
+            Limit fetchLimit = Limit.of(pageSize + 1);
+            Flux<WishlistRow> wishlists = cursor == null || cursor.isBlank()
+                    ? wishlistReadRepository.findByUserIdOrderByIdAsc(userId, fetchLimit)
+                    : wishlistReadRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, cursorMapper.fromCursor(cursor), fetchLimit);
+
+            return wishlists.map(wishlistMapper::toDto)
+                    .collectList()
+                    .map(rows -> {
+                        boolean hasNext = rows.size() > pageSize;
+                        List<WishlistResponseDto> page = hasNext ? rows.subList(0, pageSize) : rows;
+                        return WishlistPageResponseDto.builder()
+                                .items(page)
+                                .nextCursor(hasNext ? cursorMapper.toCursor(page.get(page.size() - 1).getId()) : null)
+                                .build();
+                    });
+        });
+    }
+
+    // Сама строка вишлиста без предметов: по ее версии строится ETag до загрузки предметов
+    public Mono<WishlistRow> findWishlist(UUID userId, UUID id) {
+        return wishlistReadRepository.findByIdAndUserId(id, userId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Вишлист с таким id не найден")));
+    }
+
+    public Mono<WishlistItemsResponseDto> findWishlistWithItems(WishlistRow wishlist) {
+        return streamItems(wishlist)
+                .collectList()
+                .map(items -> wishlistMapper.toDtoWithItems(wishlist, items));
+    }
+
+    public Flux<ItemWishlistDto> streamItems(WishlistRow wishlist) {
+        return wishlistItemReadRepository.streamByWishlistId(wishlist.id())
+                .map(wishlistMapper::toItemWishlistDto);
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("Размер страницы должен быть положительным");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+}
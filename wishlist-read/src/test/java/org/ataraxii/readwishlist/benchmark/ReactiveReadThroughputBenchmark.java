@@ -0,0 +1,230 @@
+package org.ataraxii.readwishlist.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.ataraxii.readwishlist.ReadWishlistApplication;
+import org.ataraxii.readwishlist.integration.TestTokens;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Те же сценарии и тот же размер пула соединений, что у ServletReadThroughputBenchmark в wishlist, для WebFlux
+// и R2DBC: GET /app/wishlists/{id} с 20 предметами при 1000 параллельных клиентов и вишлист на LARGE_ITEMS
+// предметов при 100 клиентах, здесь - потоком NDJSON. Цифры двух замеров сравнимы, если их снимать на одной машине.
+// Запуск: gradle :wishlist-read:benchmark
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReactiveReadThroughputBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final int CONCURRENCY = 1000;
+    private static final int LARGE_CONCURRENCY = 100;
+    private static final int USERS = 100;
+    private static final int ITEMS_PER_WISHLIST = 20;
+    private static final int LARGE_ITEMS = 5000;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+
+    private final List<UUID> wishlistIds = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+
+    private EmbeddedPostgres postgres;
+    private HttpClient httpClient;
+    private UUID largeWishlistId;
+    private String largeToken;
+
+    @BeforeAll
+    void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        seed(dataSource);
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+    }
+
+    @AfterAll
+    void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void reactive() throws Exception {
+        try (ConfigurableApplicationContext context = start()) {
+            String baseUrl = baseUrl(context);
+
+            run(baseUrl, WARMUP, CONCURRENCY, this::smallRequest);
+            Result small = run(baseUrl, MEASUREMENT, CONCURRENCY, this::smallRequest);
+            print(ITEMS_PER_WISHLIST + " предметов", CONCURRENCY, small);
+
+            run(baseUrl, WARMUP, LARGE_CONCURRENCY, this::largeRequest);
+            Result large = run(baseUrl, MEASUREMENT, LARGE_CONCURRENCY, this::largeRequest);
+            print(LARGE_ITEMS + " предметов, NDJSON", LARGE_CONCURRENCY, large);
+        }
+    }
+
+    private void print(String scenario, int concurrency, Result result) {
+        System.out.printf("WebFlux + R2DBC, %s (пул соединений %d, %d параллельных клиентов): %.0f запросов/с, p50 %.2f мс, p99 %.2f мс, ошибок %d%n",
+                scenario, POOL_SIZE, concurrency, result.throughput(), result.p50(), result.p99(), result.errors());
+    }
+
+    private String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ReadWishlistApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres",
+                        "--spring.r2dbc.username=postgres",
+                        "--spring.r2dbc.pool.max-size=" + POOL_SIZE,
+                        "--spring.r2dbc.pool.initial-size=" + POOL_SIZE,
+                        "--logging.level.org.ataraxii.readwishlist=WARN");
+    }
+
+    private HttpRequest smallRequest(String baseUrl) {
+        int user = ThreadLocalRandom.current().nextInt(USERS);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/app/wishlists/" + wishlistIds.get(user)))
+                .header("Authorization", tokens.get(user))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest largeRequest(String baseUrl) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/app/wishlists/" + largeWishlistId))
+                .header("Authorization", largeToken)
+                .header("Accept", "application/x-ndjson")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    // Держит concurrency запросов в полете, пока не истечет время
+    private Result run(String baseUrl, Duration duration, int concurrency, Function<String, HttpRequest> requests) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            HttpRequest request = requests.apply(baseUrl);
+            long sent = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - sent);
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(concurrency);
+        long elapsed = System.nanoTime() - start;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(sorted.length * 1_000_000_000.0 / elapsed,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get());
+    }
+
+    private double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    // Данные пишутся обычным JDBC: в приложении его нет, драйвер есть только в тестах для миграций
+    private void seed(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            for (int u = 0; u < USERS; u++) {
+                UUID userId = UUID.randomUUID();
+                UUID wishlistId = insertWishlist(connection, "wishlist " + u, userId, ITEMS_PER_WISHLIST);
+                wishlistIds.add(wishlistId);
+                tokens.add(TestTokens.bearer(userId));
+            }
+            UUID largeUserId = UUID.randomUUID();
+            largeWishlistId = insertWishlist(connection, "large", largeUserId, LARGE_ITEMS);
+            largeToken = TestTokens.bearer(largeUserId);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+        }
+    }
+
+    private UUID insertWishlist(Connection connection, String name, UUID userId, int items) throws SQLException {
+        UUID wishlistId = UUID.randomUUID();
+        try (PreparedStatement wishlist = connection.prepareStatement(
+                "insert into wishlist (id, name, shared, user_id) values (?, ?, false, ?)")) {
+            wishlist.setObject(1, wishlistId);
+            wishlist.setString(2, name);
+            wishlist.setObject(3, userId);
+            wishlist.executeUpdate();
+        }
+        List<UUID> itemIds = new ArrayList<>();
+        try (PreparedStatement item = connection.prepareStatement(
+                "insert into item (id, name, url, price, user_id) values (?, ?, 'https://example.com', 100, ?)")) {
+            for (int i = 0; i < items; i++) {
+                UUID itemId = UUID.randomUUID();
+                itemIds.add(itemId);
+                item.setObject(1, itemId);
+                item.setString(2, "item " + i);
+                item.setObject(3, userId);
+                item.addBatch();
+            }
+            item.executeBatch();
+        }
+        try (PreparedStatement link = connection.prepareStatement(
+                "insert into item_wishlist (item_id, wishlist_id) values (?, ?)")) {
+            for (UUID itemId : itemIds) {
+                link.setObject(1, itemId);
+                link.setObject(2, wishlistId);
+                link.addBatch();
+            }
+            link.executeBatch();
+        }
+        return wishlistId;
+    }
+
+    private record Result(double throughput, double p50, double p99, long errors) {
+    }
+}
@@ -0,0 +1,29 @@
+package org.ataraxii.readwishlist.integration;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+// Токены, подписанные тем же секретом, что и в application-test.yml
+public final class TestTokens {
+
+    public static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private TestTokens() {
+    }
+
+    public static String bearer(UUID userId) {
+        return "Bearer " + Jwts.builder()
+                .subject("testuser")
+                .claim("userId", userId.toString())
+                .claim("roles", List.of("USER"))
+                .expiration(Date.from(Instant.now().plusSeconds(3600)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,341 @@
+package org.ataraxii.readwishlist.integration;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.ataraxii.readwishlist.database.WishlistItemReadRepository;
+import org.ataraxii.readwishlist.database.WishlistItemRow;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Схему накатывают миграции api-service, данные пишутся напрямую в таблицы: сущностей JPA здесь нет
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class WishlistReadIT {
+
+    private static final int LARGE_LIST_SIZE = 600;
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private WishlistItemReadRepository wishlistItemReadRepository;
+
+    @Autowired
+    private ConnectionPool connectionPool;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private UUID userId;
+    private UUID wishlistId;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(postgres.getPostgresDatabase());
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres");
+        registry.add("spring.r2dbc.username", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        wishlistId = createWishlist("wishlist", true, 3);
+    }
+
+    @Test
+    void context_readsThroughR2dbcWithoutJdbcPool() {
+        assertFalse(context.getBeansOfType(RouterFunction.class).isEmpty());
+        assertEquals(0, context.getBeanNamesForType(DataSource.class).length);
+        assertFalse(ClassUtils.isPresent("com.zaxxer.hikari.HikariDataSource", null));
+    }
+
+    @Test
+    void findAllWishlists_keysetPagesWithEtag() {
+        createWishlist("second", false, 0);
+        createWishlist("third", false, 0);
+
+        Map<?, ?> first = webTestClient.get().uri("/app/wishlists?limit=2")
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody(Map.class)
+                .returnResult().getResponseBody();
+        assertEquals(2, ((List<?>) first.get("items")).size());
+        assertNotNull(first.get("nextCursor"));
+
+        webTestClient.get().uri("/app/wishlists?limit=2&cursor={cursor}", first.get("nextCursor"))
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    void findAllWishlists_ifNoneMatch_notModified() {
+        String etag = webTestClient.get().uri("/app/wishlists")
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/app/wishlists")
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void findAllWishlists_invalidLimit_badRequest() {
+        webTestClient.get().uri("/app/wishlists?limit=0")
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Размер страницы должен быть положительным");
+    }
+
+    @Test
+    void findWishlistById_returnsItemsWithVersionEtag() {
+        long version = databaseClient.sql("select version from wishlist where id = :id")
+                .bind("id", wishlistId)
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .block(Duration.ofSeconds(10));
+
+        webTestClient.get().uri("/app/wishlists/{id}", wishlistId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v" + version + "\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(wishlistId.toString())
+                .jsonPath("$.items.length()").isEqualTo(3)
+                .jsonPath("$.items[0].name").isEqualTo("item-0");
+
+        webTestClient.get().uri("/app/wishlists/{id}", wishlistId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v" + version + "\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void findWishlistById_otherUser_notFound() {
+        webTestClient.get().uri("/app/wishlists/{id}", wishlistId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(UUID.randomUUID()))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Вишлист с таким id не найден");
+    }
+
+    @Test
+    void findWishlistById_invalidId_badRequest() {
+        webTestClient.get().uri("/app/wishlists/export")
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void findWishlistById_ndjson_streamsAllItemsInOrder() {
+        UUID largeId = createWishlist("large", false, LARGE_LIST_SIZE);
+
+        List<Map> items = webTestClient.get().uri("/app/wishlists/{id}", largeId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Map.class)
+                .getResponseBody()
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertEquals(LARGE_LIST_SIZE, items.size());
+        for (int i = 0; i < LARGE_LIST_SIZE; i++) {
+            assertEquals("item-" + i, items.get(i).get("name"));
+        }
+    }
+
+    @Test
+    void findWishlistById_ndjsonForOtherUser_notFoundBeforeStreaming() {
+        webTestClient.get().uri("/app/wishlists/{id}", wishlistId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(UUID.randomUUID()))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    // Строки выдаются по спросу, а отмена посреди списка закрывает курсор и возвращает соединение в пул
+    @Test
+    void streamByWishlistId_emitsOnDemandAndReleasesConnectionOnCancel() throws InterruptedException {
+        UUID largeId = createWishlist("large", false, LARGE_LIST_SIZE);
+
+        StepVerifier.create(wishlistItemReadRepository.streamByWishlistId(largeId), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(5)
+                .expectNextCount(5)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+
+        awaitConnectionsReleased();
+        List<WishlistItemRow> all = wishlistItemReadRepository.streamByWishlistId(largeId)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertEquals(LARGE_LIST_SIZE, all.size());
+    }
+
+    @Test
+    void ndjsonClient_cancelsMidStream_connectionReleased() throws InterruptedException {
+        UUID largeId = createWishlist("large", false, LARGE_LIST_SIZE);
+
+        Flux<Map> body = webTestClient.get().uri("/app/wishlists/{id}", largeId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Map.class)
+                .getResponseBody();
+        assertEquals(10, body.take(10).collectList().block(Duration.ofSeconds(10)).size());
+
+        awaitConnectionsReleased();
+    }
+
+    // Публичные вишлисты кэширует и сбрасывает при записи api-service, этот экземпляр их не отдает
+    @Test
+    void sharedWishlist_notServed() {
+        webTestClient.get().uri("/shared/wishlists/{id}", wishlistId)
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.get().uri("/shared/wishlists/{id}", wishlistId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void withoutToken_unauthorized() {
+        webTestClient.get().uri("/app/wishlists")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("UNAUTHORIZED");
+
+        webTestClient.get().uri("/app/wishlists")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer broken")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    // Записи шлюз сюда не направляет, а сам экземпляр их не обслуживает. Запросы без тела: сервер отвечает,
+    // не читая его, и иначе мог бы закрыть соединение раньше, чем клиент дописал запрос
+    @Test
+    void writes_notServed() {
+        webTestClient.post().uri("/app/wishlists")
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.delete().uri("/app/wishlists/{id}", wishlistId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .exchange()
+                .expectStatus().isNotFound();
+
+        long wishlists = databaseClient.sql("select count(*) as n from wishlist where user_id = :userId")
+                .bind("userId", userId)
+                .map(row -> row.get("n", Long.class))
+                .one()
+                .block(Duration.ofSeconds(10));
+        assertEquals(1, wishlists);
+    }
+
+    // Предметы item-0, item-1, ... связываются по порядку: id связи из последовательности задает порядок в ответе
+    private UUID createWishlist(String name, boolean shared, int itemCount) {
+        UUID id = UUID.randomUUID();
+        databaseClient.sql("insert into wishlist (id, name, shared, user_id) values (:id, :name, :shared, :userId)")
+                .bind("id", id)
+                .bind("name", name)
+                .bind("shared", shared)
+                .bind("userId", userId)
+                .then()
+                .block(Duration.ofSeconds(10));
+        if (itemCount > 0) {
+            databaseClient.sql("""
+                            with items as (
+                                insert into item (name, url, user_id)
+                                select 'item-' || n, 'https://example.com/' || n, :userId
+                                from generate_series(0, :last) n
+                                returning id, name
+                            )
+                            insert into item_wishlist (item_id, wishlist_id)
+                            select id, :wishlistId from items order by cast(substring(name from 6) as int)
+                            """)
+                    .bind("userId", userId)
+                    .bind("last", itemCount - 1)
+                    .bind("wishlistId", id)
+                    .then()
+                    .block(Duration.ofSeconds(10));
+        }
+        return id;
+    }
+
+    private void awaitConnectionsReleased() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (connectionPool.getMetrics().orElseThrow().acquiredSize() > 0) {
+            assertTrue(System.nanoTime() < deadline, "соединение R2DBC не возвращено в пул");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.ataraxii.wishlist.jmh;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.ataraxii.common.security.JwtService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+// Сам API-сервис токены не выпускает, поэтому для замеров они подписываются здесь тем же способом, что и в auth
+final class BenchmarkTokens {
+
+    static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private BenchmarkTokens() {
+    }
+
+    static JwtService jwtService() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        jwtService.init();
+        return jwtService;
+    }
+
+    static String token(UUID userId) {
+        return Jwts.builder()
+                .subject("benchmark-user")
+                .claim("userId", userId.toString())
+                .claim("roles", List.of("USER"))
+                .issuedAt(new Date())
+                .expiration(Date.from(Instant.now().plusSeconds(3600)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS256)
+                .compact();
+    }
+}
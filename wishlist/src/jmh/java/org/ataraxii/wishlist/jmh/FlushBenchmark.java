@@ -0,0 +1,111 @@
+package org.ataraxii.wishlist.jmh;
+
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Стоимость flush сессии, в которой загружены size предметов и их связи с вишлистом (2 * size + 1 сущностей).
+// Сравнение с неулучшенными классами: gradle :wishlist:jmh -Pjmh.include=Flush -Phibernate.enhance=false
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlushBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private List<Item> items;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Wishlist.class)
+                .addAnnotatedClass(Item.class)
+                .addAnnotatedClass(ItemWishlist.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:flush-" + size + ";DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .buildSessionFactory();
+
+        UUID userId = UUID.randomUUID();
+        sessionFactory.inTransaction(s -> {
+            Wishlist wishlist = Wishlist.builder().name("wishlist").userId(userId).build();
+            s.persist(wishlist);
+            for (int i = 0; i < size; i++) {
+                Item item = Item.builder()
+                        .name("item-" + i)
+                        .url("https://example.com/items/" + i)
+                        .price(i)
+                        .comment("comment " + i)
+                        .userId(userId)
+                        .build();
+                s.persist(item);
+                s.persist(ItemWishlist.builder().item(item).wishlist(wishlist).build());
+                if (i % 50 == 49) {
+                    s.flush();
+                    s.clear();
+                    wishlist = s.getReference(Wishlist.class, wishlist.getId());
+                }
+            }
+        });
+
+        session = sessionFactory.openSession();
+        session.beginTransaction();
+        session.createSelectionQuery("from ItemWishlist iw join fetch iw.item join fetch iw.wishlist", ItemWishlist.class)
+                .getResultList();
+        items = session.createSelectionQuery("from Item", Item.class).getResultList();
+        if (!(items.get(0) instanceof PersistentAttributeInterceptable)) {
+            System.out.println("Классы сущностей не улучшены: flush сравнивает снимки всех сущностей");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.getTransaction().rollback();
+        session.close();
+        sessionFactory.close();
+    }
+
+    // Ничего не изменилось: улучшенные классы проверяют флаг, без улучшения сравниваются все поля всех сущностей
+    @Benchmark
+    public void flushUnchanged() {
+        session.flush();
+    }
+
+    // Одна измененная сущность из size: flush с одним UPDATE
+    @Benchmark
+    public void flushOneChanged() {
+        Item item = items.get(next++ % size);
+        item.setPrice(item.getPrice() + 1);
+        session.flush();
+    }
+}
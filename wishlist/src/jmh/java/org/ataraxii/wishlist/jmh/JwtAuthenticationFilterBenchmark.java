@@ -0,0 +1,78 @@
+package org.ataraxii.wishlist.jmh;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.ataraxii.common.security.VerifiedTokenCache;
+import org.ataraxii.wishlist.security.JwtAuthenticationFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Фильтр на каждом запросе: токен из заголовка, кэш проверенных токенов, SecurityContext.
+// Цепочка ничего не делает, контекст очищается после каждого вызова, как в настоящем запросе
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest authorizedRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(BenchmarkTokens.jwtService(),
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), 10_000, Duration.ofMinutes(15));
+        filter = new JwtAuthenticationFilter(verifiedTokenCache);
+
+        authorizedRequest = new MockHttpServletRequest("GET", "/app/wishlists");
+        authorizedRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + BenchmarkTokens.token(UUID.randomUUID()));
+        anonymousRequest = new MockHttpServletRequest("GET", "/shared/wishlists/" + UUID.randomUUID());
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authorized() throws ServletException, IOException {
+        return filterOnce(authorizedRequest);
+    }
+
+    @Benchmark
+    public Authentication anonymous() throws ServletException, IOException {
+        return filterOnce(anonymousRequest);
+    }
+
+    private Authentication filterOnce(MockHttpServletRequest request) throws ServletException, IOException {
+        try {
+            filter.doFilter(request, response, CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.ataraxii.wishlist.jmh;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.ataraxii.common.security.JwtService;
+import org.ataraxii.common.security.VerifiedToken;
+import org.ataraxii.common.security.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Разбор токена с проверкой HMAC (промах кэша) против попадания в VerifiedTokenCache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkTokens.jwtService();
+        verifiedTokenCache = new VerifiedTokenCache(jwtService,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), 10_000, Duration.ofMinutes(15));
+        token = BenchmarkTokens.token(UUID.randomUUID());
+        verifiedTokenCache.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken parseToken() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verifyCached() {
+        return verifiedTokenCache.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return BenchmarkTokens.token(UUID.randomUUID());
+    }
+}
@@ -0,0 +1,108 @@
+package org.ataraxii.wishlist.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.ataraxii.common.dto.wishlist.WishlistItemsResponseDto;
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.dto.item.ItemResponseDto;
+import org.ataraxii.wishlist.mapper.ItemMapper;
+import org.ataraxii.wishlist.mapper.WishlistMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Сборка ответа GET /app/wishlists/{id}: сущности -> DTO -> JSON. Размеры - от типичного вишлиста
+// до верхней границы пакетной вставки
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private final WishlistMapper wishlistMapper = new WishlistMapper();
+    private final ItemMapper itemMapper = ItemMapper.builder().build();
+    // с теми же настройками, что и ObjectMapper в Spring Boot
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Wishlist wishlist;
+    private Item item;
+    private WishlistItemsResponseDto dto;
+
+    @Setup
+    public void setUp() {
+        UUID userId = UUID.randomUUID();
+        wishlist = Wishlist.builder()
+                .id(UUID.randomUUID())
+                .name("День рождения")
+                .comment("к 1 июня")
+                .userId(userId)
+                .version(3L)
+                .itemCount(items)
+                .updatedAt(Instant.now())
+                .build();
+        List<ItemWishlist> links = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Item current = Item.builder()
+                    .id(UUID.randomUUID())
+                    .name("Товар " + i)
+                    .url("https://market.example.com/catalog/product/" + i + "?ref=wishlist")
+                    .price(1000 + i)
+                    .imageUrl("https://cdn.example.com/images/" + i + ".jpg")
+                    .comment("размер M")
+                    .userId(userId)
+                    .version(1L)
+                    .updatedAt(Instant.now())
+                    .build();
+            links.add(ItemWishlist.builder()
+                    .id((long) i)
+                    .item(current)
+                    .wishlist(wishlist)
+                    .build());
+        }
+        wishlist.setItemWishlist(links);
+        item = links.get(0).getItem();
+        dto = wishlistMapper.toDtoWithItems(wishlist);
+    }
+
+    @Benchmark
+    public WishlistItemsResponseDto toDtoWithItems() {
+        return wishlistMapper.toDtoWithItems(wishlist);
+    }
+
+    @Benchmark
+    public ItemResponseDto itemToDto() {
+        return itemMapper.toDto(item);
+    }
+
+    @Benchmark
+    public byte[] serializeWishlistItems() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(wishlistMapper.toDtoWithItems(wishlist));
+    }
+}
@@ -0,0 +1,40 @@
+package org.ataraxii.wishlist.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.ataraxii.wishlist.security.SecurityUtil;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.UUID;
+
+// Read-your-writes при чтении с реплик: после коммита пишущей транзакции пользователь на lagTolerance
+// закрепляется за основной базой. Закрепление локально для экземпляра API: при нескольких экземплярах
+// без sticky-сессий следующий запрос может попасть на экземпляр, который о записи не знает
+public class PrimaryPinning implements TransactionExecutionListener {
+
+    private final SecurityUtil securityUtil;
+    private final Cache<UUID, Boolean> pinnedUsers;
+
+    public PrimaryPinning(SecurityUtil securityUtil, Duration lagTolerance, long maximumSize) {
+        this.securityUtil = securityUtil;
+        this.pinnedUsers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(lagTolerance)
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            securityUtil.findCurrentUserId().ifPresent(userId -> pinnedUsers.put(userId, Boolean.TRUE));
+        }
+    }
+
+    public boolean isCurrentUserPinned() {
+        return securityUtil.findCurrentUserId()
+                .map(userId -> pinnedUsers.getIfPresent(userId) != null)
+                .orElse(false);
+    }
+}
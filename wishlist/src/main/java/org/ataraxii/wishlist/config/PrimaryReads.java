@@ -0,0 +1,32 @@
+package org.ataraxii.wishlist.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Read-only транзакция, которая все равно должна читать основную базу: отставание реплики для нее
+// недопустимо. Вызывать в начале транзакции, до первого запроса - соединение берется при первом запросе
+// (LazyConnectionDataSourceProxy), и тогда ReplicaRoutingDataSource выберет основную базу.
+// Без реплик ничего не меняет
+public final class PrimaryReads {
+
+    private PrimaryReads() {
+    }
+
+    public static void require() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(PrimaryReads.class)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PrimaryReads.class, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PrimaryReads.class);
+            }
+        });
+    }
+
+    static boolean isRequired() {
+        return TransactionSynchronizationManager.hasResource(PrimaryReads.class);
+    }
+}
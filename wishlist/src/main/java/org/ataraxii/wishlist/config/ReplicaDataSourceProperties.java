@@ -0,0 +1,30 @@
+package org.ataraxii.wishlist.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties("wishlist.datasource")
+public class ReplicaDataSourceProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Сколько после записи пользователь читает с основной базы, чтобы увидеть свои изменения
+    // несмотря на отставание реплик
+    private Duration lagTolerance = Duration.ofSeconds(5);
+
+    private long maximumPinnedUsers = 100_000;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        // по умолчанию как у основного пула
+        private Integer maximumPoolSize;
+    }
+}
@@ -0,0 +1,49 @@
+package org.ataraxii.wishlist.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Источник соединений для read-only транзакций: реплики по кругу, либо основная база,
+// если пользователь недавно писал (см. PrimaryPinning) или транзакция требует ее сама (см. PrimaryReads)
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final List<HikariDataSource> replicas;
+    private final HikariDataSource primary;
+    private final PrimaryPinning primaryPinning;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(List<HikariDataSource> replicas, HikariDataSource primary, PrimaryPinning primaryPinning) {
+        this.replicas = List.copyOf(replicas);
+        this.primary = primary;
+        this.primaryPinning = primaryPinning;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+
+    private HikariDataSource target() {
+        if (PrimaryReads.isRequired() || primaryPinning.isCurrentUserPinned()) {
+            return primary;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    // Основной пул закрывает Spring как отдельный бин
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
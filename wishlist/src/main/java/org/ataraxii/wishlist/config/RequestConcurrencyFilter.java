@@ -0,0 +1,91 @@
+package org.ataraxii.wishlist.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+// На виртуальных потоках Tomcat больше не ограничивает число запросов в обработке: все они сразу
+// встают в очередь за соединением Hikari и делят процессор. Ограничиваем их число сами, остальные
+// ждут на семафоре, не занимая поток-носитель. Actuator не ограничиваем: пробы не должны ждать за API
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final String actuatorBasePath;
+
+    public RequestConcurrencyFilter(@Value("${wishlist.virtual-threads.max-concurrent-requests:50}") int maxConcurrentRequests,
+                                    @Value("${management.endpoints.web.base-path:/actuator}") String actuatorBasePath) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.actuatorBasePath = actuatorBasePath;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals(actuatorBasePath) || path.startsWith(actuatorBasePath + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // асинхронный ответ (выгрузка NDJSON) пишется уже после выхода из фильтра:
+                // разрешение отдаем, когда он завершится, а не когда освободится поток
+                request.getAsyncContext().addListener(new ReleasingListener());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permits.release();
+            }
+        }
+    }
+
+    // onComplete приходит и после onTimeout/onError, поэтому разрешение отдается ровно один раз
+    private class ReleasingListener implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // повторный startAsync создает новый AsyncContext без слушателей
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
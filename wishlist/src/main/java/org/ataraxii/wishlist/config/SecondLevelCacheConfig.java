@@ -0,0 +1,60 @@
+package org.ataraxii.wishlist.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.ataraxii.wishlist.database.entity.CacheRegions;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.CacheSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+// Кэш второго уровня Hibernate для Wishlist, Item, ItemWishlist и коллекций связей (wishlist.l2-cache.enabled).
+// hibernate-jcache на classpath включает кэш сам, поэтому без флага он явно выключается.
+// Регионы - кэши Caffeine через JCache, создаются заранее: регион без настроек - ошибка старта, а не кэш без лимитов.
+// Статистика регионов - hibernate_second_level_cache_* в /actuator/prometheus
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties,
+                                                                    ObjectProvider<CacheManager> secondLevelCacheManager) {
+        if (!properties.isEnabled()) {
+            return hibernateProperties -> hibernateProperties.put(CacheSettings.USE_SECOND_LEVEL_CACHE, false);
+        }
+        CacheManager cacheManager = secondLevelCacheManager.getObject();
+        return hibernateProperties -> {
+            hibernateProperties.put(CacheSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(CacheSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Связь ItemWishlist сохраняется без изменения коллекции вишлиста, кэш этой коллекции
+            // сбрасывается по изменению самой связи
+            hibernateProperties.put(CacheSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        };
+    }
+
+    // Свой провайдер на контекст: CacheManager по умолчанию общий на JVM, и второй контекст (например, в тестах)
+    // получил бы уже созданные регионы
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("wishlist.l2-cache.enabled")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        for (String name : CacheRegions.ALL) {
+            SecondLevelCacheProperties.Region region = properties.region(name);
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(name, configuration);
+        }
+        return cacheManager;
+    }
+}
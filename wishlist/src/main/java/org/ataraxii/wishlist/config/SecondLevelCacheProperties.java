@@ -0,0 +1,29 @@
+package org.ataraxii.wishlist.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties("wishlist.l2-cache")
+public class SecondLevelCacheProperties {
+
+    private boolean enabled = false;
+
+    // Ключ - имя региона из CacheRegions, для незаданных регионов действуют значения Region по умолчанию
+    private Map<String, Region> regions = new HashMap<>();
+
+    public Region region(String name) {
+        return regions.getOrDefault(name, new Region());
+    }
+
+    @Data
+    public static class Region {
+        private long maximumSize = 10_000;
+        // Кэш локальный для экземпляра: записи, измененные другим экземпляром API, живут здесь не дольше TTL
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+}
@@ -1,10 +1,17 @@
 package org.ataraxii.wishlist.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.ataraxii.common.mapper.EtagMapper;
+import org.ataraxii.wishlist.dto.item.ItemBatchRequestDto;
+import org.ataraxii.wishlist.dto.item.ItemBatchResponseDto;
 import org.ataraxii.wishlist.dto.item.ItemDto;
 import org.ataraxii.wishlist.dto.item.ItemResponseDto;
+import org.ataraxii.wishlist.dto.item.ItemSearchResponseDto;
+import org.ataraxii.wishlist.mapper.IfMatchMapper;
 import org.ataraxii.wishlist.security.SecurityUtil;
+import org.ataraxii.wishlist.service.ItemSearchService;
 import org.ataraxii.wishlist.service.ItemService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,7 +25,20 @@ import java.util.UUID;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemSearchService itemSearchService;
     private final SecurityUtil securityUtil;
+    private final EtagMapper etagMapper;
+    private final IfMatchMapper ifMatchMapper;
+
+    @GetMapping("/items/search")
+    public ResponseEntity<ItemSearchResponseDto> searchItems(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        UUID userId = securityUtil.getCurrentUserId();
+        ItemSearchResponseDto response = itemSearchService.searchItems(userId, query, page, size);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
 
     @PostMapping("/wishlists/{wishlistId}/items")
     public ResponseEntity<ItemResponseDto> createItem(
@@ -30,6 +50,15 @@ public class ItemController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/wishlists/{wishlistId}/items/batch")
+    public ResponseEntity<ItemBatchResponseDto> createItems(
+            @PathVariable UUID wishlistId,
+            @RequestBody ItemBatchRequestDto dto) {
+        UUID userId = securityUtil.getCurrentUserId();
+        ItemBatchResponseDto response = itemService.createItems(userId, wishlistId, dto.getItems());
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
     // На переработке
 
 //    @GetMapping("/items")
@@ -62,11 +91,13 @@ public class ItemController {
     public ResponseEntity<ItemResponseDto> updateItem(
             @PathVariable UUID wishlistId,
             @PathVariable UUID itemId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody ItemDto dto) {
         UUID userId = securityUtil.getCurrentUserId();
         dto.setWishlistId(wishlistId);
-        ItemResponseDto item = itemService.updateItem(userId, wishlistId, itemId, dto);
-        return ResponseEntity.status(HttpStatus.OK).body(item);
+        Long expectedVersion = ifMatchMapper.fromIfMatch(ifMatch);
+        ItemResponseDto item = itemService.updateItem(userId, wishlistId, itemId, dto, expectedVersion);
+        return ResponseEntity.status(HttpStatus.OK).eTag(etagMapper.toEtag(item.getVersion())).body(item);
     }
 
     @DeleteMapping("/wishlists/{wishlistId}/items/{itemId}")
@@ -1,9 +1,15 @@
 package org.ataraxii.wishlist.controller;
 
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
-import org.ataraxii.wishlist.dto.wishlist.WishlistItemsResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistItemsResponseDto;
 import org.ataraxii.wishlist.security.SecurityUtil;
 import org.ataraxii.wishlist.service.WishlistService;
+import org.ataraxii.wishlist.service.cache.SharedWishlistView;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,10 +22,17 @@ public class ShareController {
     private final WishlistService wishlistService;
     private final SecurityUtil securityUtil;
 
-    @GetMapping("/shared/wishlists/{wishlistId}")
-    public ResponseEntity<WishlistItemsResponseDto> getSharedWishlist(@PathVariable UUID wishlistId) {
-        WishlistItemsResponseDto wishlist = wishlistService.checkShared(wishlistId);
-        return ResponseEntity.ok(wishlist);
+    // Тело отдается уже сериализованным из кэша. ETag выставлен в ResponseEntity,
+    // поэтому на совпавший If-None-Match Spring сам отвечает 304 без тела
+    @GetMapping(value = "/shared/wishlists/{wishlistId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponse(content = @Content(schema = @Schema(implementation = WishlistItemsResponseDto.class)))
+    public ResponseEntity<byte[]> getSharedWishlist(@PathVariable UUID wishlistId) {
+        SharedWishlistView view = wishlistService.getSharedView(wishlistId);
+        return ResponseEntity.ok()
+                .eTag(view.etag())
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(view.body());
     }
 
     @PatchMapping("/wishlists/share/{wishlistId}")
@@ -28,4 +41,11 @@ public class ShareController {
         wishlistService.setShared(userId, wishlistId);
         return ResponseEntity.ok().build();
     }
+
+    @DeleteMapping("/wishlists/share/{wishlistId}")
+    public ResponseEntity<Void> unsetShareWishlist(@PathVariable UUID wishlistId) {
+        UUID userId = securityUtil.getCurrentUserId();
+        wishlistService.unsetShared(userId, wishlistId);
+        return ResponseEntity.ok().build();
+    }
 }
@@ -0,0 +1,31 @@
+package org.ataraxii.wishlist.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.ataraxii.wishlist.dto.sync.SyncResponseDto;
+import org.ataraxii.wishlist.security.SecurityUtil;
+import org.ataraxii.wishlist.service.SyncService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/app/")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+    private final SecurityUtil securityUtil;
+
+    // Без since - полная выгрузка страницами. Пока hasMore, запрашивать дальше с nextToken,
+    // последний nextToken сохранить до следующего запуска клиента
+    @GetMapping("/sync")
+    public ResponseEntity<SyncResponseDto> sync(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        UUID userId = securityUtil.getCurrentUserId();
+        SyncResponseDto response = syncService.sync(userId, since, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+}
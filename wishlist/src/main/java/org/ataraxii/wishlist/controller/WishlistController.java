@@ -1,16 +1,24 @@
 package org.ataraxii.wishlist.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.ataraxii.common.dto.wishlist.WishlistItemsResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistPageResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.common.mapper.EtagMapper;
 import org.ataraxii.wishlist.dto.wishlist.WishlistDto;
-import org.ataraxii.wishlist.dto.wishlist.WishlistItemsResponseDto;
-import org.ataraxii.wishlist.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.wishlist.mapper.IfMatchMapper;
 import org.ataraxii.wishlist.security.SecurityUtil;
+import org.ataraxii.wishlist.service.WishlistExportService;
 import org.ataraxii.wishlist.service.WishlistService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,7 +27,10 @@ import java.util.UUID;
 public class WishlistController {
 
     private final WishlistService wishlistService;
+    private final WishlistExportService wishlistExportService;
     private final SecurityUtil securityUtil;
+    private final EtagMapper etagMapper;
+    private final IfMatchMapper ifMatchMapper;
 
     @PostMapping("/wishlists")
     public ResponseEntity<WishlistResponseDto> createWishlist(@RequestBody WishlistDto dto) {
@@ -28,18 +39,47 @@ public class WishlistController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // Условные GET: ETag считается по версиям из БД, и при совпадении с If-None-Match
+    // отвечаем 304, не загружая сущности и не собирая DTO
     @GetMapping("/wishlists")
-    public ResponseEntity<List<WishlistResponseDto>> findAllWishlists() {
+    public ResponseEntity<WishlistPageResponseDto> findAllWishlists(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
         UUID userId = securityUtil.getCurrentUserId();
-        List<WishlistResponseDto> response = wishlistService.findAllWishlists(userId);
-        return ResponseEntity.status(HttpStatus.OK).body(response);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(wishlistService.findWishlistsEtag(userId, cursor, limit))) {
+            return null;
+        }
+        WishlistPageResponseDto response = wishlistService.findAllWishlists(userId, cursor, limit);
+        String etag = etagMapper.toPageEtag(response.getItems(), WishlistResponseDto::getId,
+                WishlistResponseDto::getVersion, response.getNextCursor() != null);
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).body(response);
+    }
+
+    // Тело пишется в потоке асинхронной обработки запроса, поэтому userId берется заранее
+    @GetMapping(value = "/wishlists/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportWishlists() {
+        UUID userId = securityUtil.getCurrentUserId();
+        StreamingResponseBody body = out -> wishlistExportService.exportWishlists(userId, out);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("wishlists.ndjson")
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @GetMapping("/wishlists/{wishlistId}")
-    public ResponseEntity<WishlistItemsResponseDto> findWishlistById(@PathVariable UUID wishlistId) {
+    public ResponseEntity<WishlistItemsResponseDto> findWishlistById(@PathVariable UUID wishlistId, WebRequest request) {
         UUID userId = securityUtil.getCurrentUserId();
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(etagMapper.toEtag(wishlistService.findWishlistVersion(userId, wishlistId)))) {
+            return null;
+        }
         WishlistItemsResponseDto response = wishlistService.findWishlistById(userId, wishlistId);
-        return ResponseEntity.status(HttpStatus.OK).body(response);
+        return ResponseEntity.status(HttpStatus.OK).eTag(etagMapper.toEtag(response.getVersion())).body(response);
     }
 
     // На переработке //
@@ -55,9 +95,11 @@ public class WishlistController {
     @PatchMapping("/wishlists/{wishlistId}")
     public ResponseEntity<WishlistResponseDto> updateWishlist(
             @PathVariable UUID wishlistId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody WishlistDto dto) {
         UUID userId = securityUtil.getCurrentUserId();
-        WishlistResponseDto response = wishlistService.updateWishlist(userId, wishlistId ,dto);
-        return ResponseEntity.status(HttpStatus.OK).body(response);
+        Long expectedVersion = ifMatchMapper.fromIfMatch(ifMatch);
+        WishlistResponseDto response = wishlistService.updateWishlist(userId, wishlistId, dto, expectedVersion);
+        return ResponseEntity.status(HttpStatus.OK).eTag(etagMapper.toEtag(response.getVersion())).body(response);
     }
 }
@@ -0,0 +1,23 @@
+package org.ataraxii.wishlist.database.entity;
+
+import java.util.List;
+
+// Регионы кэша второго уровня Hibernate, размер и TTL каждого - в wishlist.l2-cache.regions
+public final class CacheRegions {
+
+    public static final String WISHLIST = "wishlist";
+    public static final String ITEM = "item";
+    public static final String ITEM_WISHLIST = "item-wishlist";
+    // Коллекции хранят только id связей, сами связи лежат в ITEM_WISHLIST
+    public static final String WISHLIST_LINKS = "wishlist.item-wishlist";
+    public static final String ITEM_LINKS = "item.item-wishlist";
+
+    // Пространство запросов нативных UPDATE/DELETE: не совпадает ни с одной таблицей, поэтому Hibernate
+    // не сбрасывает после них регионы целиком, как после bulk HQL. Затронутые id сбрасывает SecondLevelCacheInvalidator
+    public static final String NATIVE_WRITE_SPACE = "native-write";
+
+    public static final List<String> ALL = List.of(WISHLIST, ITEM, ITEM_WISHLIST, WISHLIST_LINKS, ITEM_LINKS);
+
+    private CacheRegions() {
+    }
+}
@@ -3,21 +3,34 @@ package org.ataraxii.wishlist.database.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.ataraxii.wishlist.database.id.GeneratedUuidV7;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @NoArgsConstructor
 @AllArgsConstructor
-@Data
+@Getter
+@Setter
+@ToString
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ITEM)
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID id;
 
     @Column(length = 32, nullable = false)
@@ -28,14 +41,46 @@ public class Item {
 
     private Integer price;
 
+    // Ленивые поля (нужно байткод-улучшение): списки и страницы вишлистов их не показывают.
+    // Оба поля в одной группе и догружаются одним SELECT при первом обращении
+    @ToString.Exclude
+    @Basic(fetch = FetchType.LAZY)
     @Column(name = "image_url")
     private String imageUrl;
 
+    @ToString.Exclude
+    @Basic(fetch = FetchType.LAZY)
     private String comment;
 
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ITEM_LINKS)
+    @ToString.Exclude
     @OneToMany(mappedBy = "item", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ItemWishlist> itemWishlist;
+
+    // Как в Wishlist: по id, без загрузки связей
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClassLazy(o) != Hibernate.getClassLazy(this)) {
+            return false;
+        }
+        return getId() != null && Objects.equals(getId(), ((Item) o).getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Hibernate.getClassLazy(this).hashCode();
+    }
 }
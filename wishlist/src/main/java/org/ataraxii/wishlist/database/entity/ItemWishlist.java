@@ -3,26 +3,69 @@ package org.ataraxii.wishlist.database.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.util.Objects;
 
 @NoArgsConstructor
 @AllArgsConstructor
-@Data
+@Getter
+@Setter
+@ToString
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ITEM_WISHLIST)
 @Table(name = "item_wishlist")
 public class ItemWishlist {
 
+    // IDENTITY отключает батчевые вставки в Hibernate, поэтому id берется из последовательности блоками
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_wishlist_id_seq")
+    @SequenceGenerator(name = "item_wishlist_id_seq", sequenceName = "item_wishlist_id_seq", allocationSize = 50)
     private Long id;
 
+    // ON DELETE CASCADE, как в Liquibase: ItemRepository.deleteGuarded полагается на каскад в БД
+    @ToString.Exclude
     @ManyToOne
     @JoinColumn(name = "item_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Item item;
 
+    @ToString.Exclude
     @ManyToOne
     @JoinColumn(name = "wishlist_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Wishlist wishlist;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // Как в Wishlist: по id, без загрузки связей
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClassLazy(o) != Hibernate.getClassLazy(this)) {
+            return false;
+        }
+        return getId() != null && Objects.equals(getId(), ((ItemWishlist) o).getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Hibernate.getClassLazy(this).hashCode();
+    }
 }
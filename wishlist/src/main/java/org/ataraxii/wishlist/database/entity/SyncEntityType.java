@@ -0,0 +1,7 @@
+package org.ataraxii.wishlist.database.entity;
+
+public enum SyncEntityType {
+    WISHLIST,
+    ITEM,
+    LINK
+}
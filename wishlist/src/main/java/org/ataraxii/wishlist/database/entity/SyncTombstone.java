@@ -0,0 +1,70 @@
+package org.ataraxii.wishlist.database.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.ataraxii.wishlist.database.id.GeneratedUuidV7;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+// Отметка об удалении для синхронизации: клиент удаляет у себя запись, которой больше нет на сервере.
+// Удаление вишлиста или предмета удаляет и их связи, отдельные отметки для связей при этом не пишутся
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@Builder
+@Entity
+@Table(name = "sync_tombstone")
+public class SyncTombstone {
+
+    // UUIDv7, как у вишлистов и предметов: отметки пишутся по времени, и вставки идут в правый край индекса
+    @Id
+    @GeneratedUuidV7(secret = false)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", length = 16, nullable = false)
+    private SyncEntityType entityType;
+
+    // id вишлиста или предмета, для связи - id предмета
+    @Column(name = "entity_id", nullable = false)
+    private UUID entityId;
+
+    // Только для связи
+    @Column(name = "wishlist_id")
+    private UUID wishlistId;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    // Как в Wishlist: по id
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClassLazy(o) != Hibernate.getClassLazy(this)) {
+            return false;
+        }
+        return getId() != null && Objects.equals(getId(), ((SyncTombstone) o).getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Hibernate.getClassLazy(this).hashCode();
+    }
+}
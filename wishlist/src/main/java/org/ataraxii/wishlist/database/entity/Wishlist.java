@@ -3,22 +3,34 @@ package org.ataraxii.wishlist.database.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.ataraxii.wishlist.database.id.GeneratedUuidV7;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @NoArgsConstructor
 @AllArgsConstructor
-@Data
+@Getter
+@Setter
+@ToString
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.WISHLIST)
 public class Wishlist {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID id;
 
     @Column(length = 32, nullable = false)
@@ -33,6 +45,42 @@ public class Wishlist {
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
+    @Version
+    private Long version;
+
+    // Сводка по предметам поддерживается инкрементально в ItemService,
+    // расхождения исправляет WishlistSummaryRebuildJob
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    @Column(name = "total_price", nullable = false)
+    private long totalPrice;
+
+    // Время последнего изменения вишлиста или его сводки, по нему работает синхронизация
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.WISHLIST_LINKS)
+    @ToString.Exclude
     @OneToMany(mappedBy = "wishlist", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ItemWishlist> itemWishlist;
+
+    // Равенство по id: не трогает коллекции и ленивые поля, прокси равен загруженной сущности.
+    // Несохраненная сущность (id == null) равна только самой себе
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClassLazy(o) != Hibernate.getClassLazy(this)) {
+            return false;
+        }
+        return getId() != null && Objects.equals(getId(), ((Wishlist) o).getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Hibernate.getClassLazy(this).hashCode();
+    }
 }
@@ -0,0 +1,20 @@
+package org.ataraxii.wishlist.database.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+// Вместо @GeneratedValue(strategy = GenerationType.UUID): id генерируется в приложении как UUIDv7
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface GeneratedUuidV7 {
+
+    // false - id не пропуск и не должен быть непредсказуемым, см. UuidV7.generateNonSecret
+    boolean secret() default true;
+}
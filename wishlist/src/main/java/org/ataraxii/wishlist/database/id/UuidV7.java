@@ -0,0 +1,61 @@
+package org.ataraxii.wishlist.database.id;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UUIDv7 (RFC 9562): 48 бит времени в миллисекундах, 12 бит счетчика внутри миллисекунды, 62 случайных бита.
+// Новые ключи идут по возрастанию, поэтому вставки попадают в правый край B-дерева первичного ключа,
+// а не в случайные страницы, как у v4
+public final class UuidV7 {
+
+    // id вишлиста - единственный пропуск к публичной ссылке /shared/wishlists/{id}, поэтому случайная часть
+    // из криптостойкого генератора. Генераторы DRBG независимы: поток берет свой по id, и вставки
+    // не ждут друг друга на одном общем SecureRandom
+    private static final SecureRandom[] RANDOMS = createRandoms();
+
+    // Время и счетчик в одном числе: timestamp << 12 | counter.
+    // Если за миллисекунду выдано больше 4096 ключей, счетчик переходит в следующую миллисекунду - порядок сохраняется
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID generate() {
+        SecureRandom random = RANDOMS[(int) (Thread.currentThread().threadId() & (RANDOMS.length - 1))];
+        return build(random.nextLong());
+    }
+
+    // Для id, которые нигде не служат пропуском (отметки об удалении): ThreadLocalRandom предсказуем,
+    // зато не синхронизируется вовсе
+    public static UUID generateNonSecret() {
+        return build(ThreadLocalRandom.current().nextLong());
+    }
+
+    private static UUID build(long random) {
+        long now = System.currentTimeMillis();
+        long timeAndCounter = LAST.updateAndGet(last -> Math.max(now << 12, last + 1));
+
+        long mostSigBits = (timeAndCounter >>> 12) << 16
+                | 0x7000L
+                | (timeAndCounter & 0xFFFL);
+        long leastSigBits = (random & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static SecureRandom[] createRandoms() {
+        // степень двойки не меньше числа ядер: индекс - младшие биты id потока
+        int size = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        SecureRandom[] randoms = new SecureRandom[size];
+        try {
+            for (int i = 0; i < size; i++) {
+                randoms[i] = SecureRandom.getInstance("DRBG");
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("DRBG недоступен", e);
+        }
+        return randoms;
+    }
+}
@@ -0,0 +1,23 @@
+package org.ataraxii.wishlist.database.projection;
+
+import java.util.UUID;
+
+public interface ItemSearchView {
+    UUID getId();
+
+    String getName();
+
+    String getUrl();
+
+    Integer getPrice();
+
+    String getImageUrl();
+
+    String getComment();
+
+    UUID getUserId();
+
+    Long getVersion();
+
+    Double getRank();
+}
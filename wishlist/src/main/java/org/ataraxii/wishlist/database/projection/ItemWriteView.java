@@ -0,0 +1,24 @@
+package org.ataraxii.wishlist.database.projection;
+
+import java.util.UUID;
+
+// Строка ItemRepository.updateReturning: предмет после UPDATE и один из вишлистов, чья сводка обновлена
+public interface ItemWriteView {
+    UUID getId();
+
+    String getName();
+
+    String getUrl();
+
+    Integer getPrice();
+
+    String getImageUrl();
+
+    String getComment();
+
+    UUID getUserId();
+
+    Long getVersion();
+
+    UUID getWishlistId();
+}
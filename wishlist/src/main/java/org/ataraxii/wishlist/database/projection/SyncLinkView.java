@@ -0,0 +1,14 @@
+package org.ataraxii.wishlist.database.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface SyncLinkView {
+    Long getId();
+
+    UUID getItemId();
+
+    UUID getWishlistId();
+
+    Instant getUpdatedAt();
+}
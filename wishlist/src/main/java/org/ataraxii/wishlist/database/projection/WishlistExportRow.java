@@ -0,0 +1,26 @@
+package org.ataraxii.wishlist.database.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Строка выгрузки: вишлист и один его предмет (или null-поля предмета для пустого вишлиста)
+public record WishlistExportRow(
+        UUID wishlistId,
+        String wishlistName,
+        String wishlistComment,
+        Instant wishlistDate,
+        boolean wishlistShared,
+        Long wishlistVersion,
+        int wishlistItemCount,
+        long wishlistTotalPrice,
+        Instant wishlistUpdatedAt,
+        UUID itemId,
+        String itemName,
+        String itemUrl,
+        Integer itemPrice,
+        String itemImageUrl,
+        String itemComment,
+        UUID itemUserId,
+        Long itemVersion
+) {
+}
@@ -0,0 +1,9 @@
+package org.ataraxii.wishlist.database.projection;
+
+import java.util.UUID;
+
+public interface WishlistVersionView {
+    UUID getId();
+
+    Long getVersion();
+}
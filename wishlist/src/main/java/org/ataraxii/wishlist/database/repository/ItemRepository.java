@@ -1,9 +1,25 @@
 package org.ataraxii.wishlist.database.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.ataraxii.wishlist.database.entity.CacheRegions;
 import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.projection.ItemSearchView;
+import org.ataraxii.wishlist.database.projection.ItemWriteView;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,5 +30,211 @@ public interface ItemRepository extends JpaRepository<Item, UUID> {
 
     List<Item> findAllByUserId(UUID userId);
 
+    // comment и imageUrl - ленивая группа, а ответ ItemDto их содержит: догружаем тем же SELECT
+    @EntityGraph(attributePaths = {"comment", "imageUrl"})
     Optional<Item> findByIdAndUserId(UUID id, UUID userId);
+
+    // Keyset по (updated_at, id), см. WishlistRepository.findChangedSince
+    @EntityGraph(attributePaths = {"comment", "imageUrl"})
+    @Query("""
+            select i from Item i
+            where i.userId = :userId and i.updatedAt >= :since
+              and (i.updatedAt > :since or :includeTies = true or i.id > :afterId)
+            order by i.updatedAt, i.id
+            """)
+    List<Item> findChangedSince(@Param("userId") UUID userId,
+                                @Param("since") Instant since,
+                                @Param("includeTies") boolean includeTies,
+                                @Param("afterId") UUID afterId,
+                                Limit limit);
+
+    // Цена до изменения или удаления нужна для дельты total_price. Строка блокируется, чтобы параллельная
+    // запись не поменяла цену между чтением и UPDATE/DELETE. Пусто - предмета нет у пользователя,
+    // он не в этом вишлисте или версия другая (version = null - без проверки версии)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select coalesce(i.price, 0) from Item i
+            where i.id = :id and i.userId = :userId and (:version is null or i.version = :version)
+              and exists (select 1 from ItemWishlist iw where iw.item.id = :id and iw.wishlist.id = :wishlistId)
+            """)
+    Optional<Integer> lockPrice(@Param("id") UUID id,
+                                @Param("userId") UUID userId,
+                                @Param("wishlistId") UUID wishlistId,
+                                @Param("version") Long version);
+
+    @Query("""
+            select count(i) > 0 from Item i
+            where i.id = :id and i.userId = :userId
+              and exists (select 1 from ItemWishlist iw where iw.item.id = :id and iw.wishlist.id = :wishlistId)
+            """)
+    boolean existsInWishlist(@Param("id") UUID id, @Param("userId") UUID userId, @Param("wishlistId") UUID wishlistId);
+
+    // Пошаговые lockPrice/updateGuarded/deleteGuarded - для H2 (тесты), на PostgreSQL их заменяют updateReturning/deleteReturning.
+    // PATCH одним UPDATE: владелец, принадлежность вишлисту и версия из If-Match (если передана) проверяются
+    // в самом запросе. 0 строк - предмет не найден или версия не совпала.
+    // Нативные, как и UPDATE сводок в WishlistRepository: кэш второго уровня сбрасывается только по id предмета
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CacheRegions.NATIVE_WRITE_SPACE))
+    @Query(nativeQuery = true, value = """
+            update item i
+            set name = coalesce(cast(:name as varchar), i.name),
+                url = coalesce(cast(:url as varchar), i.url),
+                price = coalesce(cast(:price as int), i.price),
+                image_url = coalesce(cast(:imageUrl as varchar), i.image_url),
+                comment = coalesce(cast(:comment as varchar), i.comment),
+                updated_at = :updatedAt,
+                version = i.version + 1
+            where i.id = :id and i.user_id = :userId and (cast(:version as bigint) is null or i.version = :version)
+              and exists (select 1 from item_wishlist iw where iw.item_id = :id and iw.wishlist_id = :wishlistId)
+            """)
+    int updateGuarded(@Param("id") UUID id,
+                      @Param("userId") UUID userId,
+                      @Param("wishlistId") UUID wishlistId,
+                      @Param("version") Long version,
+                      @Param("name") String name,
+                      @Param("url") String url,
+                      @Param("price") Integer price,
+                      @Param("imageUrl") String imageUrl,
+                      @Param("comment") String comment,
+                      @Param("updatedAt") Instant updatedAt);
+
+    // Удаление одним DELETE с теми же проверками. Связи item_wishlist удаляет ON DELETE CASCADE в БД
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CacheRegions.NATIVE_WRITE_SPACE))
+    @Query(nativeQuery = true, value = """
+            delete from item i
+            where i.id = :id and i.user_id = :userId
+              and exists (select 1 from item_wishlist iw where iw.item_id = :id and iw.wishlist_id = :wishlistId)
+            """)
+    int deleteGuarded(@Param("id") UUID id, @Param("userId") UUID userId, @Param("wishlistId") UUID wishlistId);
+
+    // PATCH на PostgreSQL одним запросом: target блокирует строку и запоминает старую цену (проверки те же, что
+    // в updateGuarded), updated меняет предмет, summary применяет дельту цены к сводкам всех его вишлистов.
+    // Строка результата на каждый такой вишлист, пусто - предмет не найден или версия не совпала
+    @Query(nativeQuery = true, value = """
+            with target as (
+                select i.id, coalesce(i.price, 0) as old_price
+                from item i
+                where i.id = :id and i.user_id = :userId and (cast(:version as bigint) is null or i.version = :version)
+                  and exists (select 1 from item_wishlist iw where iw.item_id = :id and iw.wishlist_id = :wishlistId)
+                for update
+            ),
+            updated as (
+                update item i
+                set name = coalesce(cast(:name as varchar), i.name),
+                    url = coalesce(cast(:url as varchar), i.url),
+                    price = coalesce(cast(:price as int), i.price),
+                    image_url = coalesce(cast(:imageUrl as varchar), i.image_url),
+                    comment = coalesce(cast(:comment as varchar), i.comment),
+                    updated_at = :updatedAt,
+                    version = i.version + 1
+                from target t
+                where i.id = t.id
+                returning i.id, i.name, i.url, i.price, i.image_url, i.comment, i.user_id, i.version,
+                          coalesce(i.price, 0) - t.old_price as price_delta
+            ),
+            summary as (
+                update wishlist w
+                set total_price = w.total_price + u.price_delta,
+                    updated_at = :updatedAt,
+                    version = w.version + 1
+                from updated u
+                         join item_wishlist iw on iw.item_id = u.id
+                where w.id = iw.wishlist_id
+                returning w.id
+            )
+            select u.id as "id", u.name as "name", u.url as "url", u.price as "price", u.image_url as "imageUrl",
+                   u.comment as "comment", u.user_id as "userId", u.version as "version", s.id as "wishlistId"
+            from updated u
+                     left join summary s on true
+            """)
+    List<ItemWriteView> updateReturning(@Param("id") UUID id,
+                                        @Param("userId") UUID userId,
+                                        @Param("wishlistId") UUID wishlistId,
+                                        @Param("version") Long version,
+                                        @Param("name") String name,
+                                        @Param("url") String url,
+                                        @Param("price") Integer price,
+                                        @Param("imageUrl") String imageUrl,
+                                        @Param("comment") String comment,
+                                        @Param("updatedAt") Instant updatedAt);
+
+    // DELETE на PostgreSQL одним запросом: вместе с предметом пишется отметка об удалении и вычитается его
+    // цена из сводок. Связи item_wishlist удаляет ON DELETE CASCADE, summary читает их из снимка до удаления.
+    // Возвращает id вишлистов с обновленной сводкой, пусто - предмет не найден
+    @Query(nativeQuery = true, value = """
+            with target as (
+                select i.id, coalesce(i.price, 0) as price
+                from item i
+                where i.id = :id and i.user_id = :userId
+                  and exists (select 1 from item_wishlist iw where iw.item_id = :id and iw.wishlist_id = :wishlistId)
+                for update
+            ),
+            deleted as (
+                delete from item i
+                using target t
+                where i.id = t.id
+                returning i.id, t.price
+            ),
+            tombstone as (
+                insert into sync_tombstone (id, user_id, entity_type, entity_id, deleted_at)
+                select :tombstoneId, :userId, :entityType, d.id, :deletedAt
+                from deleted d
+            ),
+            summary as (
+                update wishlist w
+                set item_count = w.item_count - 1,
+                    total_price = w.total_price - d.price,
+                    updated_at = :deletedAt,
+                    version = w.version + 1
+                from deleted d
+                         join item_wishlist iw on iw.item_id = d.id
+                where w.id = iw.wishlist_id
+                returning w.id
+            )
+            select s.id from summary s
+            """)
+    List<UUID> deleteReturning(@Param("id") UUID id,
+                               @Param("userId") UUID userId,
+                               @Param("wishlistId") UUID wishlistId,
+                               @Param("tombstoneId") UUID tombstoneId,
+                               @Param("entityType") String entityType,
+                               @Param("deletedAt") Instant deletedAt);
+
+    // Полнотекстовый поиск (idx_item_search_vector) и нечеткий по триграммам (idx_item_name_trgm,
+    // idx_item_comment_trgm) среди предметов пользователя: все три GIN-индекса начинаются с user_id. Совпадение в названии весит больше, чем в комментарии.
+    // Только для PostgreSQL
+    @Query(nativeQuery = true, value = """
+            select i.id as "id", i.name as "name", i.url as "url", i.price as "price",
+                   i.image_url as "imageUrl", i.comment as "comment", i.user_id as "userId", i.version as "version",
+                   cast(ts_rank(i.search_vector, websearch_to_tsquery('simple', :query))
+                        + greatest(word_similarity(:query, i.name), 0.5 * word_similarity(:query, coalesce(i.comment, '')))
+                        as double precision) as "rank"
+            from item i
+            where i.user_id = :userId
+              and (i.search_vector @@ websearch_to_tsquery('simple', :query)
+                   or :query <% i.name
+                   or :query <% i.comment)
+            order by "rank" desc, i.id
+            """)
+    Slice<ItemSearchView> searchFullText(@Param("userId") UUID userId, @Param("query") String query, Pageable pageable);
+
+    // Упрощенный поиск по подстроке для H2: без расширений PostgreSQL
+    @Query("""
+            select i.id as id, i.name as name, i.url as url, i.price as price,
+                   i.imageUrl as imageUrl, i.comment as comment, i.userId as userId, i.version as version,
+                   case when lower(i.name) = :query then 3.0
+                        when lower(i.name) like :prefix escape '\\' then 2.0
+                        when lower(i.name) like :pattern escape '\\' then 1.0
+                        else 0.5 end as rank
+            from Item i
+            where i.userId = :userId
+              and (lower(i.name) like :pattern escape '\\' or lower(i.comment) like :pattern escape '\\')
+            order by rank desc, i.id
+            """)
+    Slice<ItemSearchView> searchBySubstring(@Param("userId") UUID userId,
+                                            @Param("query") String query,
+                                            @Param("prefix") String prefix,
+                                            @Param("pattern") String pattern,
+                                            Pageable pageable);
 }
@@ -1,13 +1,42 @@
 package org.ataraxii.wishlist.database.repository;
 
 import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.projection.ItemWishlistLinkView;
+import org.ataraxii.wishlist.database.projection.SyncLinkView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ItemWishlistRepository extends JpaRepository<ItemWishlist, Long> {
     Optional<ItemWishlist> findByItemIdAndWishlistId(UUID itemId, UUID wishlistId);
+
+    @Query("select iw.wishlist.id from ItemWishlist iw where iw.item.id = :itemId")
+    List<UUID> findWishlistIdsByItemId(@Param("itemId") UUID itemId);
+
+    // Keyset по (updated_at, id), см. WishlistRepository.findChangedSince
+    @Query("""
+            select iw.id as id, iw.item.id as itemId, iw.wishlist.id as wishlistId, iw.updatedAt as updatedAt
+            from ItemWishlist iw
+            where iw.wishlist.userId = :userId and iw.updatedAt >= :since
+              and (iw.updatedAt > :since or :includeTies = true or iw.id > :afterId)
+            order by iw.updatedAt, iw.id
+            """)
+    List<SyncLinkView> findChangedSince(@Param("userId") UUID userId,
+                                        @Param("since") Instant since,
+                                        @Param("includeTies") boolean includeTies,
+                                        @Param("afterId") Long afterId,
+                                        Limit limit);
+
+    // Вишлисты для страницы найденных предметов одним запросом
+    @Query("select iw.item.id as itemId, iw.wishlist.id as wishlistId from ItemWishlist iw where iw.item.id in :itemIds")
+    List<ItemWishlistLinkView> findLinksByItemIdIn(@Param("itemIds") Collection<UUID> itemIds);
 }
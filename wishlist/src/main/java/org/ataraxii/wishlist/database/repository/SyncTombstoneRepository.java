@@ -0,0 +1,34 @@
+package org.ataraxii.wishlist.database.repository;
+
+import org.ataraxii.wishlist.database.entity.SyncTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, UUID> {
+
+    // Keyset по (deleted_at, id), см. WishlistRepository.findChangedSince
+    @Query("""
+            select t from SyncTombstone t
+            where t.userId = :userId and t.deletedAt >= :since
+              and (t.deletedAt > :since or :includeTies = true or t.id > :afterId)
+            order by t.deletedAt, t.id
+            """)
+    List<SyncTombstone> findChangedSince(@Param("userId") UUID userId,
+                                         @Param("since") Instant since,
+                                         @Param("includeTies") boolean includeTies,
+                                         @Param("afterId") UUID afterId,
+                                         Limit limit);
+
+    @Modifying
+    @Query("delete from SyncTombstone t where t.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") Instant before);
+}
@@ -1,12 +1,28 @@
 package org.ataraxii.wishlist.database.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.ataraxii.wishlist.database.entity.CacheRegions;
 import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.projection.WishlistExportRow;
+import org.ataraxii.wishlist.database.projection.WishlistVersionView;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface WishlistRepository extends JpaRepository<Wishlist, UUID> {
@@ -14,5 +30,130 @@ public interface WishlistRepository extends JpaRepository<Wishlist, UUID> {
 
     List<Wishlist> findByUserId(UUID userId);
 
+    // Keyset-пагинация: страница упорядочена по id, следующая начинается строго после последнего id
+    List<Wishlist> findByUserIdOrderByIdAsc(UUID userId, Limit limit);
+
+    List<Wishlist> findByUserIdAndIdGreaterThanOrderByIdAsc(UUID userId, UUID id, Limit limit);
+
+    // Вишлист вместе со связями и предметами одним запросом, без N+1 в WishlistMapper.toDtoWithItems
+    @EntityGraph(attributePaths = {"itemWishlist", "itemWishlist.item"})
+    Optional<Wishlist> findWithItemsByIdAndUserId(UUID id, UUID userId);
+
+    @EntityGraph(attributePaths = {"itemWishlist", "itemWishlist.item"})
+    Optional<Wishlist> findWithItemsByIdAndSharedTrue(UUID id);
+
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    @Query("select w.userId from Wishlist w where w.id = :id")
+    Optional<UUID> findUserIdById(@Param("id") UUID id);
+
+    // Версии для условных GET: ETag считается без загрузки сущностей
+    @Query("select w.version from Wishlist w where w.id = :id and w.userId = :userId")
+    Optional<Long> findVersionByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    List<WishlistVersionView> findVersionsByUserIdOrderByIdAsc(UUID userId, Limit limit);
+
+    List<WishlistVersionView> findVersionsByUserIdAndIdGreaterThanOrderByIdAsc(UUID userId, UUID id, Limit limit);
+
+    // Изменение предметов меняет сводку и представление вишлиста, поэтому в том же UPDATE поднимаем версию.
+    // Этот и следующие UPDATE - нативные: bulk HQL сбросил бы весь регион wishlist в кэше второго уровня,
+    // затронутые id вызывающий сбрасывает сам через SecondLevelCacheInvalidator
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CacheRegions.NATIVE_WRITE_SPACE))
+    @Query(nativeQuery = true, value = """
+            update wishlist
+            set item_count = item_count + :countDelta,
+                total_price = total_price + :priceDelta,
+                updated_at = :updatedAt,
+                version = version + 1
+            where id in (:ids)
+            """)
+    int applyItemDelta(@Param("ids") Collection<UUID> ids,
+                       @Param("countDelta") int countDelta,
+                       @Param("priceDelta") long priceDelta,
+                       @Param("updatedAt") Instant updatedAt);
+
+    // Пересборка сводок пачками по id. Строки блокируются, чтобы параллельная дельта
+    // из ItemService не потерялась между пересчетом и записью
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w.id from Wishlist w order by w.id")
+    List<UUID> lockIdsOrderByIdAsc(Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w.id from Wishlist w where w.id > :id order by w.id")
+    List<UUID> lockIdsByIdGreaterThanOrderByIdAsc(@Param("id") UUID id, Limit limit);
+
+    @Query("""
+            select w.id from Wishlist w
+            where w.id in :ids
+              and (w.itemCount <> (select count(iw) from ItemWishlist iw where iw.wishlist.id = w.id)
+                   or w.totalPrice <> (select coalesce(sum(i.price), 0) from ItemWishlist iw join iw.item i
+                                       where iw.wishlist.id = w.id))
+            """)
+    List<UUID> findIdsWithStaleSummary(@Param("ids") Collection<UUID> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CacheRegions.NATIVE_WRITE_SPACE))
+    @Query(nativeQuery = true, value = """
+            update wishlist w
+            set item_count = (select count(*) from item_wishlist iw where iw.wishlist_id = w.id),
+                total_price = (select coalesce(sum(i.price), 0) from item_wishlist iw join item i on i.id = iw.item_id
+                               where iw.wishlist_id = w.id),
+                updated_at = :updatedAt,
+                version = w.version + 1
+            where w.id in (:ids)
+            """)
+    int rebuildSummaries(@Param("ids") Collection<UUID> ids, @Param("updatedAt") Instant updatedAt);
+
+    // PATCH с If-Match: проверка версии выполняется в самом UPDATE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CacheRegions.NATIVE_WRITE_SPACE))
+    @Query(nativeQuery = true, value = """
+            update wishlist w
+            set name = coalesce(cast(:name as varchar), w.name),
+                comment = coalesce(cast(:comment as varchar), w.comment),
+                date = coalesce(cast(:date as timestamp with time zone), w.date),
+                updated_at = :updatedAt,
+                version = w.version + 1
+            where w.id = :id and w.user_id = :userId and w.version = :version
+            """)
+    int updateIfVersionMatches(@Param("id") UUID id,
+                               @Param("userId") UUID userId,
+                               @Param("version") long version,
+                               @Param("name") String name,
+                               @Param("comment") String comment,
+                               @Param("date") Instant date,
+                               @Param("updatedAt") Instant updatedAt);
+
+    // Выгрузка всех вишлистов пользователя с предметами. Результат читается курсором порциями
+    // по fetch size, а строки - DTO, а не сущности, поэтому контекст персистентности не растет.
+    // Вызывать внутри транзакции и закрывать Stream
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new org.ataraxii.wishlist.database.projection.WishlistExportRow(
+                w.id, w.name, w.comment, w.date, w.shared, w.version, w.itemCount, w.totalPrice, w.updatedAt,
+                i.id, i.name, i.url, i.price, i.imageUrl, i.comment, i.userId, i.version)
+            from Wishlist w
+            left join w.itemWishlist iw
+            left join iw.item i
+            where w.userId = :userId
+            order by w.id, i.id
+            """)
+    Stream<WishlistExportRow> streamExportRowsByUserId(@Param("userId") UUID userId);
+
+    // Синхронизация: изменения после курсора (since, afterId) в порядке (updated_at, id).
+    // includeTies - взять все строки с updated_at = since (курсор стоит на записи другого типа)
+    @Query("""
+            select w from Wishlist w
+            where w.userId = :userId and w.updatedAt >= :since
+              and (w.updatedAt > :since or :includeTies = true or w.id > :afterId)
+            order by w.updatedAt, w.id
+            """)
+    List<Wishlist> findChangedSince(@Param("userId") UUID userId,
+                                    @Param("since") Instant since,
+                                    @Param("includeTies") boolean includeTies,
+                                    @Param("afterId") UUID afterId,
+                                    Limit limit);
+
     UUID id(UUID id);
 }
@@ -0,0 +1,16 @@
+package org.ataraxii.wishlist.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBatchRequestDto {
+    private List<ItemDto> items;
+}
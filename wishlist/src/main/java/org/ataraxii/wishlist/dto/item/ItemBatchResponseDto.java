@@ -0,0 +1,18 @@
+package org.ataraxii.wishlist.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBatchResponseDto {
+    private int created;
+    private int rejected;
+    private List<ItemBatchResultDto> results;
+}
@@ -0,0 +1,22 @@
+package org.ataraxii.wishlist.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBatchResultDto {
+
+    // Позиция предмета в запросе
+    private int index;
+
+    private ItemBatchStatus status;
+
+    private ItemResponseDto item;
+
+    private String message;
+}
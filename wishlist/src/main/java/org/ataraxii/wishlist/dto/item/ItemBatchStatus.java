@@ -0,0 +1,6 @@
+package org.ataraxii.wishlist.dto.item;
+
+public enum ItemBatchStatus {
+    CREATED,
+    REJECTED
+}
@@ -30,4 +30,6 @@ public class ItemResponseDto {
 
     @NotBlank
     private UUID user;
+
+    private Long version;
 }
@@ -0,0 +1,22 @@
+package org.ataraxii.wishlist.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSearchResultDto {
+    private ItemResponseDto item;
+
+    // Вишлисты пользователя, в которых лежит предмет
+    private List<UUID> wishlistIds;
+
+    private double rank;
+}
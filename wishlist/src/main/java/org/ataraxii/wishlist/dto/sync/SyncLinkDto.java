@@ -0,0 +1,17 @@
+package org.ataraxii.wishlist.dto.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncLinkDto {
+    private UUID wishlistId;
+    private UUID itemId;
+}
@@ -0,0 +1,30 @@
+package org.ataraxii.wishlist.dto.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.wishlist.dto.item.ItemResponseDto;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponseDto {
+    private List<WishlistResponseDto> wishlists;
+    private List<ItemResponseDto> items;
+    private List<SyncLinkDto> links;
+    private List<SyncTombstoneDto> deleted;
+
+    // Передать в следующий запрос как since
+    private String nextToken;
+
+    // Есть еще изменения, следующую страницу запрашивать сразу
+    private boolean hasMore;
+
+    // Токен не передан или устарел: клиент заменяет локальные данные полученными
+    private boolean reset;
+}
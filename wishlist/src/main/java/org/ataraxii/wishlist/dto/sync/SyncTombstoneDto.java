@@ -0,0 +1,22 @@
+package org.ataraxii.wishlist.dto.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.ataraxii.wishlist.database.entity.SyncEntityType;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncTombstoneDto {
+    private SyncEntityType type;
+
+    // id вишлиста или предмета, для связи - id предмета
+    private UUID id;
+
+    private UUID wishlistId;
+}
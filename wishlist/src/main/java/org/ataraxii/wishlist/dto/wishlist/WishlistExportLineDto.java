@@ -0,0 +1,28 @@
+package org.ataraxii.wishlist.dto.wishlist;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.wishlist.dto.item.ItemResponseDto;
+
+import java.util.UUID;
+
+// Одна строка NDJSON-выгрузки: либо вишлист, либо предмет, идущий после своего вишлиста
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WishlistExportLineDto {
+
+    private WishlistExportLineType type;
+
+    private UUID wishlistId;
+
+    private WishlistResponseDto wishlist;
+
+    private ItemResponseDto item;
+}
@@ -0,0 +1,6 @@
+package org.ataraxii.wishlist.dto.wishlist;
+
+public enum WishlistExportLineType {
+    WISHLIST,
+    ITEM
+}
@@ -0,0 +1,7 @@
+package org.ataraxii.wishlist.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
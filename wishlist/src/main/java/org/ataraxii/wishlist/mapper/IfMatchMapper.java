@@ -0,0 +1,29 @@
+package org.ataraxii.wishlist.mapper;
+
+import lombok.RequiredArgsConstructor;
+import org.ataraxii.common.mapper.EtagMapper;
+import org.ataraxii.wishlist.exception.PreconditionFailedException;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class IfMatchMapper {
+
+    private final EtagMapper etagMapper;
+
+    // Версия из заголовка If-Match. null - условия нет (заголовок не передан или равен *)
+    public Long fromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match не допускает слабые ETag");
+        }
+        Long version = etagMapper.toVersion(etag);
+        if (version == null) {
+            throw new PreconditionFailedException("Версия в If-Match не совпадает с текущей");
+        }
+        return version;
+    }
+}
@@ -3,6 +3,7 @@ package org.ataraxii.wishlist.mapper;
 import lombok.Builder;
 import lombok.Data;
 import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.projection.ItemWriteView;
 import org.ataraxii.wishlist.dto.item.ItemResponseDto;
 import org.springframework.stereotype.Component;
 
@@ -22,6 +23,20 @@ public class ItemMapper {
                 .imageUrl(item.getImageUrl())
                 .comment(item.getComment())
                 .user(item.getUserId())
+                .version(item.getVersion())
+                .build();
+    }
+
+    public ItemResponseDto toDto(ItemWriteView view) {
+        return ItemResponseDto.builder()
+                .id(view.getId())
+                .name(view.getName())
+                .url(view.getUrl())
+                .price(view.getPrice())
+                .imageUrl(view.getImageUrl())
+                .comment(view.getComment())
+                .user(view.getUserId())
+                .version(view.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,28 @@
+package org.ataraxii.wishlist.mapper;
+
+import java.time.Instant;
+
+// Позиция в потоке изменений, упорядоченном по (время изменения, вид записи, id).
+// kind == null - позиция перед всеми записями с временем since
+public record SyncCursor(Instant since, Kind kind, String afterKey) {
+
+    public enum Kind {
+        WISHLIST,
+        ITEM,
+        LINK,
+        TOMBSTONE
+    }
+
+    public static SyncCursor startingAt(Instant since) {
+        return new SyncCursor(since, null, null);
+    }
+
+    // Записи вида kind со временем since, равным курсору, еще не отданы целиком
+    public boolean includesTies(Kind other) {
+        return kind == null || other.ordinal() > kind.ordinal();
+    }
+
+    public String afterKey(Kind other) {
+        return other == kind ? afterKey : null;
+    }
+}
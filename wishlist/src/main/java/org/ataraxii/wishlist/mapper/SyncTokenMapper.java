@@ -0,0 +1,42 @@
+package org.ataraxii.wishlist.mapper;
+
+import org.ataraxii.wishlist.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+// Токен синхронизации: время в микросекундах (точность timestamptz), вид записи и id последней отданной записи
+@Component
+public class SyncTokenMapper {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String toSyncToken(SyncCursor cursor) {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, cursor.since());
+        String value = micros + ":" + (cursor.kind() == null ? "" : cursor.kind().name())
+                + ":" + (cursor.afterKey() == null ? "" : cursor.afterKey());
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public SyncCursor fromSyncToken(String token) {
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":", -1);
+            if (parts.length != 3) {
+                throw new BadRequestException("Некорректный токен синхронизации");
+            }
+            Instant since = Instant.EPOCH.plus(Long.parseLong(parts[0]), ChronoUnit.MICROS);
+            SyncCursor.Kind kind = parts[1].isEmpty() ? null : SyncCursor.Kind.valueOf(parts[1]);
+            String afterKey = parts[2].isEmpty() ? null : parts[2];
+            if (kind == null && afterKey != null) {
+                throw new BadRequestException("Некорректный токен синхронизации");
+            }
+            return new SyncCursor(since, kind, afterKey);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new BadRequestException("Некорректный токен синхронизации");
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package org.ataraxii.wishlist.mapper;
 
+import org.ataraxii.common.dto.item.ItemWishlistDto;
+import org.ataraxii.common.dto.wishlist.WishlistItemsResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
 import org.ataraxii.wishlist.database.entity.ItemWishlist;
 import org.ataraxii.wishlist.database.entity.Wishlist;
-import org.ataraxii.wishlist.dto.item.ItemWishlistDto;
-import org.ataraxii.wishlist.dto.wishlist.WishlistItemsResponseDto;
-import org.ataraxii.wishlist.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.wishlist.database.projection.WishlistExportRow;
+import org.ataraxii.wishlist.dto.item.ItemResponseDto;
+import org.ataraxii.wishlist.dto.wishlist.WishlistExportLineDto;
+import org.ataraxii.wishlist.dto.wishlist.WishlistExportLineType;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -13,6 +17,13 @@ public class WishlistMapper {
         return WishlistResponseDto.builder()
                 .id(wishlist.getId())
                 .name(wishlist.getName())
+                .comment(wishlist.getComment())
+                .date(wishlist.getDate())
+                .shared(wishlist.isShared())
+                .version(wishlist.getVersion())
+                .itemCount(wishlist.getItemCount())
+                .totalPrice(wishlist.getTotalPrice())
+                .lastModifiedAt(wishlist.getUpdatedAt())
                 .build();
     }
 
@@ -30,6 +41,42 @@ public class WishlistMapper {
                                         .build())
                                 .toList()
                 )
+                .version(wishlist.getVersion())
+                .build();
+    }
+
+    public WishlistExportLineDto toWishlistExportLine(WishlistExportRow row) {
+        return WishlistExportLineDto.builder()
+                .type(WishlistExportLineType.WISHLIST)
+                .wishlistId(row.wishlistId())
+                .wishlist(WishlistResponseDto.builder()
+                        .id(row.wishlistId())
+                        .name(row.wishlistName())
+                        .comment(row.wishlistComment())
+                        .date(row.wishlistDate())
+                        .shared(row.wishlistShared())
+                        .version(row.wishlistVersion())
+                        .itemCount(row.wishlistItemCount())
+                        .totalPrice(row.wishlistTotalPrice())
+                        .lastModifiedAt(row.wishlistUpdatedAt())
+                        .build())
+                .build();
+    }
+
+    public WishlistExportLineDto toItemExportLine(WishlistExportRow row) {
+        return WishlistExportLineDto.builder()
+                .type(WishlistExportLineType.ITEM)
+                .wishlistId(row.wishlistId())
+                .item(ItemResponseDto.builder()
+                        .id(row.itemId())
+                        .name(row.itemName())
+                        .url(row.itemUrl())
+                        .price(row.itemPrice())
+                        .imageUrl(row.itemImageUrl())
+                        .comment(row.itemComment())
+                        .user(row.itemUserId())
+                        .version(row.itemVersion())
+                        .build())
                 .build();
     }
 }
@@ -5,24 +5,25 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.ataraxii.common.security.JwtUser;
+import org.ataraxii.common.security.VerifiedToken;
+import org.ataraxii.common.security.VerifiedTokenCache;
+import org.ataraxii.logging.RequestMdcFilter;
+import org.slf4j.MDC;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -40,27 +41,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
 
-        if (!jwtService.isTokenValid(jwt)) {
+        Optional<VerifiedToken> verified = verifiedTokenCache.verify(jwt);
+        if (verified.isEmpty()) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String username = jwtService.extractUsername(jwt);
-        UUID userId = jwtService.extractUserId(jwt);
-        List<String> roles = jwtService.extractRoles(jwt);
-
-        List<GrantedAuthority> authorities = roles.stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-
-        JwtUser jwtUser = new JwtUser(userId, username, authorities);
+        JwtUser jwtUser = verified.get().user();
 
         UsernamePasswordAuthenticationToken authToken =
-                new UsernamePasswordAuthenticationToken(jwtUser, null, authorities);
+                new UsernamePasswordAuthenticationToken(jwtUser, null, jwtUser.getAuthorities());
 
         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
         SecurityContextHolder.getContext().setAuthentication(authToken);
+        MDC.put(RequestMdcFilter.USER_ID, jwtUser.getUserId().toString());
 
         filterChain.doFilter(request, response);
     }
@@ -1,10 +1,12 @@
 package org.ataraxii.wishlist.security;
 
+import org.ataraxii.common.security.JwtUser;
 import org.ataraxii.wishlist.exception.UnauthorizedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Component
@@ -18,6 +20,15 @@ public class SecurityUtil {
         return user.getUserId();
     }
 
+    // Для кода вне запроса пользователя (задачи по расписанию, публичные ссылки)
+    public Optional<UUID> findCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtUser user) {
+            return Optional.of(user.getUserId());
+        }
+        return Optional.empty();
+    }
+
     public String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !(authentication.getPrincipal() instanceof JwtUser user)) {
@@ -0,0 +1,123 @@
+package org.ataraxii.wishlist.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ataraxii.wishlist.database.projection.ItemSearchView;
+import org.ataraxii.wishlist.database.projection.ItemWishlistLinkView;
+import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.dto.item.ItemResponseDto;
+import org.ataraxii.wishlist.dto.item.ItemSearchResponseDto;
+import org.ataraxii.wishlist.dto.item.ItemSearchResultDto;
+import org.ataraxii.wishlist.exception.BadRequestException;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemSearchService {
+
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final ItemRepository itemRepository;
+    private final ItemWishlistRepository itemWishlistRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${wishlist.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${wishlist.page.max-size:100}")
+    private int maxPageSize;
+
+    // tsvector и pg_trgm есть только в PostgreSQL, на H2 (тесты) ищем по подстроке
+    private boolean fullTextSearch;
+
+    @PostConstruct
+    public void init() {
+        fullTextSearch = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+        log.info("Поиск предметов: {}", fullTextSearch ? "полнотекстовый и по триграммам" : "по подстроке");
+    }
+
+    @Transactional(readOnly = true)
+    public ItemSearchResponseDto searchItems(UUID userId, String query, Integer page, Integer size) {
+        String normalized = query == null ? "" : query.strip();
+        if (normalized.isEmpty()) {
+            throw new BadRequestException("Поисковый запрос не должен быть пустым");
+        }
+        if (normalized.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Поисковый запрос не должен быть длиннее " + MAX_QUERY_LENGTH + " символов");
+        }
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0) {
+            throw new BadRequestException("Номер страницы не должен быть отрицательным");
+        }
+        PageRequest pageRequest = PageRequest.of(pageNumber, resolvePageSize(size));
+
+        Slice<ItemSearchView> slice;
+        if (fullTextSearch) {
+            slice = itemRepository.searchFullText(userId, normalized, pageRequest);
+        } else {
+            String lower = normalized.toLowerCase(Locale.ROOT);
+            String escaped = lower.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            slice = itemRepository.searchBySubstring(userId, lower, escaped + "%", "%" + escaped + "%", pageRequest);
+        }
+        log.info("По запросу найдено {} предметов на странице {} у пользователя {}", slice.getNumberOfElements(), pageNumber, userId);
+
+        Map<UUID, List<UUID>> wishlistIds = slice.isEmpty()
+                ? Map.of()
+                : itemWishlistRepository.findLinksByItemIdIn(slice.map(ItemSearchView::getId).getContent()).stream()
+                        .collect(Collectors.groupingBy(ItemWishlistLinkView::getItemId,
+                                Collectors.mapping(ItemWishlistLinkView::getWishlistId, Collectors.toList())));
+
+        return ItemSearchResponseDto.builder()
+                .items(slice.getContent().stream()
+                        .map(view -> toResult(view, wishlistIds.getOrDefault(view.getId(), List.of())))
+                        .toList())
+                .page(pageNumber)
+                .nextPage(slice.hasNext() ? pageNumber + 1 : null)
+                .build();
+    }
+
+    private ItemSearchResultDto toResult(ItemSearchView view, List<UUID> wishlistIds) {
+        return ItemSearchResultDto.builder()
+                .item(ItemResponseDto.builder()
+                        .id(view.getId())
+                        .name(view.getName())
+                        .url(view.getUrl())
+                        .price(view.getPrice())
+                        .imageUrl(view.getImageUrl())
+                        .comment(view.getComment())
+                        .user(view.getUserId())
+                        .version(view.getVersion())
+                        .build())
+                .wishlistIds(wishlistIds)
+                .rank(view.getRank() == null ? 0 : view.getRank())
+                .build();
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new BadRequestException("Размер страницы должен быть положительным");
+        }
+        return Math.min(size, maxPageSize);
+    }
+}
@@ -1,22 +1,44 @@
 package org.ataraxii.wishlist.service;
 
-import jakarta.transaction.Transactional;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.ataraxii.wishlist.database.entity.Item;
 import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.SyncEntityType;
+import org.ataraxii.wishlist.database.entity.SyncTombstone;
 import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.id.UuidV7;
+import org.ataraxii.wishlist.database.projection.ItemWriteView;
+import org.ataraxii.wishlist.database.repository.SyncTombstoneRepository;
 import org.ataraxii.wishlist.database.repository.WishlistRepository;
 import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
 import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.dto.item.ItemBatchResponseDto;
+import org.ataraxii.wishlist.dto.item.ItemBatchResultDto;
+import org.ataraxii.wishlist.dto.item.ItemBatchStatus;
 import org.ataraxii.wishlist.dto.item.ItemDto;
 import org.ataraxii.wishlist.dto.item.ItemResponseDto;
+import org.ataraxii.wishlist.exception.BadRequestException;
 import org.ataraxii.wishlist.exception.NotFoundException;
+import org.ataraxii.wishlist.exception.PreconditionFailedException;
 import org.ataraxii.wishlist.mapper.ItemMapper;
-import org.ataraxii.wishlist.security.SecurityUtil;
+import org.ataraxii.wishlist.service.cache.SecondLevelCacheInvalidator;
+import org.ataraxii.wishlist.service.cache.SharedWishlistCache;
+import org.ataraxii.wishlist.service.cache.WishlistOwnerCache;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,20 +51,36 @@ public class ItemService {
     private final WishlistRepository wishlistRepository;
     private final ItemWishlistRepository itemWishlistRepository;
     private final ItemMapper itemMapper;
-    private final SecurityUtil securityUtil;
+    private final SharedWishlistCache sharedWishlistCache;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final WishlistOwnerCache wishlistOwnerCache;
+    private final SecondLevelCacheInvalidator cacheInvalidator;
+    private final EntityManagerFactory entityManagerFactory;
 
-    @Transactional
-    public ItemResponseDto createItem(ItemDto dto, UUID userId) {
-        String username = securityUtil.getCurrentUsername();
-        log.info("Создание предмета '{}' пользователем '{}'", dto.getName(), username);
+    @Value("${wishlist.items.batch.max-size:500}")
+    private int maxBatchSize;
 
-        Wishlist wishlist = wishlistRepository.findByIdAndUserId(dto.getWishlistId(), userId)
-                .orElse(null);
+    // Изменяющие CTE с RETURNING есть только в PostgreSQL, на H2 (тесты) PATCH и DELETE идут по шагам
+    private boolean returningWrites;
+
+    @PostConstruct
+    public void init() {
+        returningWrites = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
 
-        if (wishlist == null) {
-            log.warn("Ошибка создания предмета: вишлист с id='{}' не найден у пользователя '{}'", dto.getWishlistId(), username);
+    @Transactional
+    public ItemResponseDto createItem(ItemDto dto, UUID userId) {
+        UUID wishlistId = dto.getWishlistId();
+        if (!wishlistOwnerCache.isOwner(wishlistId, userId)) {
+            log.warn("Ошибка создания предмета: вишлист с id='{}' не найден", wishlistId);
             throw new NotFoundException("Вишлист не найден");
         }
+        // Владелец проверен по кэшу, для связи достаточно ссылки без загрузки вишлиста
+        Wishlist wishlist = wishlistRepository.getReferenceById(wishlistId);
+
+        applyItemDeltaToExisting(wishlistId, 1, priceOf(dto.getPrice()));
 
         Item item = Item.builder()
                 .name(dto.getName())
@@ -54,7 +92,6 @@ public class ItemService {
                 .build();
 
         itemRepository.save(item);
-        log.info("Предмет '{}' успешно создан в вишлисте '{}' пользователем '{}'", item.getName(), wishlist.getName(), username);
 
         ItemWishlist itemWishlist = ItemWishlist.builder()
                 .item(item)
@@ -62,10 +99,109 @@ public class ItemService {
                 .build();
 
         itemWishlistRepository.save(itemWishlist);
+        log.info("Предмет с id='{}' создан в вишлисте с id='{}'", item.getId(), wishlistId);
 
         return itemMapper.toDto(item);
     }
 
+    // Массовое создание: владение вишлистом проверяется один раз, предметы и связи уходят батчами
+    // (UUID генерируется в приложении, id связей берутся из последовательности блоками)
+    @Transactional
+    public ItemBatchResponseDto createItems(UUID userId, UUID wishlistId, List<ItemDto> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new BadRequestException("Список предметов пуст");
+        }
+        if (dtos.size() > maxBatchSize) {
+            throw new BadRequestException("Слишком много предметов в одном запросе, максимум " + maxBatchSize);
+        }
+
+        if (!wishlistOwnerCache.isOwner(wishlistId, userId)) {
+            log.warn("Ошибка создания предметов: вишлист с id='{}' не найден", wishlistId);
+            throw new NotFoundException("Вишлист не найден");
+        }
+        Wishlist wishlist = wishlistRepository.getReferenceById(wishlistId);
+
+        List<ItemBatchResultDto> results = new ArrayList<>(dtos.size());
+        List<Item> items = new ArrayList<>(dtos.size());
+        List<ItemWishlist> links = new ArrayList<>(dtos.size());
+        Map<Integer, Item> created = new HashMap<>();
+
+        for (int index = 0; index < dtos.size(); index++) {
+            ItemDto dto = dtos.get(index);
+            String error = validateNewItem(dto);
+            if (error != null) {
+                results.add(ItemBatchResultDto.builder()
+                        .index(index)
+                        .status(ItemBatchStatus.REJECTED)
+                        .message(error)
+                        .build());
+                continue;
+            }
+
+            Item item = Item.builder()
+                    .name(dto.getName())
+                    .url(dto.getUrl())
+                    .price(dto.getPrice())
+                    .imageUrl(dto.getImageUrl())
+                    .comment(dto.getComment())
+                    .userId(userId)
+                    .build();
+            items.add(item);
+            links.add(ItemWishlist.builder()
+                    .item(item)
+                    .wishlist(wishlist)
+                    .build());
+            created.put(index, item);
+            results.add(null);
+        }
+
+        if (!items.isEmpty()) {
+            long totalPrice = items.stream()
+                    .mapToLong(item -> priceOf(item.getPrice()))
+                    .sum();
+            applyItemDeltaToExisting(wishlistId, items.size(), totalPrice);
+            itemRepository.saveAll(items);
+            itemWishlistRepository.saveAll(links);
+            itemRepository.flush();
+        }
+
+        created.forEach((index, item) -> results.set(index, ItemBatchResultDto.builder()
+                .index(index)
+                .status(ItemBatchStatus.CREATED)
+                .item(itemMapper.toDto(item))
+                .build()));
+
+        log.info("В вишлисте с id='{}' создано {} предметов, отклонено {}",
+                wishlistId, items.size(), dtos.size() - items.size());
+
+        return ItemBatchResponseDto.builder()
+                .created(items.size())
+                .rejected(dtos.size() - items.size())
+                .results(results)
+                .build();
+    }
+
+    private String validateNewItem(ItemDto dto) {
+        if (dto == null) {
+            return "Пустой предмет";
+        }
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return "Название предмета не может быть пустым";
+        }
+        if (dto.getName().length() > 32) {
+            return "Название предмета длиннее 32 символов";
+        }
+        if (dto.getUrl() == null || dto.getUrl().isBlank()) {
+            return "Ссылка на предмет не может быть пустой";
+        }
+        if (dto.getUrl().length() > 256
+                || (dto.getImageUrl() != null && dto.getImageUrl().length() > 256)
+                || (dto.getComment() != null && dto.getComment().length() > 256)) {
+            return "Поле предмета длиннее 256 символов";
+        }
+        return null;
+    }
+
     // На переработке
 
 //    public List<ItemResponseDto> findAllItems(UUID userId) {
@@ -95,65 +231,144 @@ public class ItemService {
 
     // На переработке
 
+    // Проверки владельца, вишлиста и версии - внутри самого UPDATE, отдельных SELECT перед записью нет.
+    // На PostgreSQL предмет, сводки его вишлистов и ответ - один запрос с RETURNING
     @Transactional
-    public ItemResponseDto updateItem(UUID userId, UUID wishlistId, UUID itemId, ItemDto dto) {
-        String username = securityUtil.getCurrentUsername();
-
-        Wishlist wishlist = wishlistRepository.findByIdAndUserId(wishlistId, userId)
-                .orElseThrow(() -> {
-                    log.warn("Ошибка при изменении предмета: Вишлист с id='{}' не найден у пользователя '{}'", wishlistId, username);
-                    return new NotFoundException("Вишлист не найден");
-                });
-
-        Item item = itemRepository.findByIdAndUserId(itemId, userId)
-                .orElseThrow(() -> {
-                    log.warn("Ошибка при изменении предмета: предмет с id='{}' не найден у пользователя '{}'", itemId, username);
-                    return new NotFoundException("Предмет с таким id не найден");
-                });
-
-        ItemWishlist itemWishlist = itemWishlistRepository.findByItemIdAndWishlistId(itemId, wishlistId)
-                .orElseThrow(() -> {
-                    log.warn("Ошибка при изменении предмета: Предмет с id='{}' не принадлежит вишлисту с id='{}'", itemId, wishlistId);
-                    return new NotFoundException("Предмет не принадлежит этому вишлисту");
-                });
-
-        if (dto.getName() != null) item.setName(dto.getName());
-        if (dto.getUrl() != null) item.setUrl(dto.getUrl());
-        if (dto.getPrice() != null) item.setPrice(dto.getPrice());
-        if (dto.getImageUrl() != null) item.setComment(dto.getComment());
+    public ItemResponseDto updateItem(UUID userId, UUID wishlistId, UUID itemId, ItemDto dto, Long expectedVersion) {
+        if (!returningWrites) {
+            return updateItemStepwise(userId, wishlistId, itemId, dto, expectedVersion);
+        }
 
-        itemRepository.save(item);
+        List<ItemWriteView> rows = itemRepository.updateReturning(itemId, userId, wishlistId, expectedVersion,
+                dto.getName(), dto.getUrl(), dto.getPrice(), dto.getImageUrl(), dto.getComment(), Instant.now());
+        if (rows.isEmpty()) {
+            throw updateFailed(userId, wishlistId, itemId, expectedVersion);
+        }
 
-        log.info("Предмет '{}' успешно изменен пользователем '{}'", item.getName(), username);
+        List<UUID> wishlistIds = rows.stream()
+                .map(ItemWriteView::getWishlistId)
+                .filter(Objects::nonNull)
+                .toList();
+        cacheInvalidator.invalidateItem(itemId);
+        evictSummaries(wishlistIds);
+        log.info("Предмет с id='{}' изменен", itemId);
 
-        itemRepository.save(item);
-        return itemMapper.toDto(item);
+        return itemMapper.toDto(rows.get(0));
+    }
+
+    // H2: те же проверки, но старая цена читается (под блокировкой) отдельным запросом, если PATCH меняет цену
+    private ItemResponseDto updateItemStepwise(UUID userId, UUID wishlistId, UUID itemId, ItemDto dto, Long expectedVersion) {
+        long priceDelta = 0;
+        if (dto.getPrice() != null) {
+            Integer oldPrice = itemRepository.lockPrice(itemId, userId, wishlistId, expectedVersion).orElse(null);
+            if (oldPrice == null) {
+                throw updateFailed(userId, wishlistId, itemId, expectedVersion);
+            }
+            priceDelta = dto.getPrice() - oldPrice;
+        }
+
+        int updated = itemRepository.updateGuarded(itemId, userId, wishlistId, expectedVersion,
+                dto.getName(), dto.getUrl(), dto.getPrice(), dto.getImageUrl(), dto.getComment(), Instant.now());
+        if (updated == 0) {
+            throw updateFailed(userId, wishlistId, itemId, expectedVersion);
+        }
+        cacheInvalidator.invalidateItem(itemId);
+
+        applyItemDelta(itemWishlistRepository.findWishlistIdsByItemId(itemId), 0, priceDelta);
+        log.info("Предмет с id='{}' изменен", itemId);
+
+        return itemRepository.findByIdAndUserId(itemId, userId)
+                .map(itemMapper::toDto)
+                .orElseThrow(() -> new NotFoundException("Предмет с таким id не найден"));
     }
 
+    // UPDATE не затронул строк: без If-Match это всегда 404, с If-Match отличаем отсутствие предмета от другой версии
+    private RuntimeException updateFailed(UUID userId, UUID wishlistId, UUID itemId, Long expectedVersion) {
+        if (expectedVersion == null || !itemRepository.existsInWishlist(itemId, userId, wishlistId)) {
+            log.warn("Ошибка при изменении предмета: предмет с id='{}' не найден в вишлисте с id='{}'", itemId, wishlistId);
+            return new NotFoundException("Предмет с таким id не найден");
+        }
+        log.warn("Ошибка при изменении предмета: версия предмета с id='{}' не совпадает с If-Match", itemId);
+        return new PreconditionFailedException("Предмет был изменен, версия не совпадает");
+    }
+
+    // На PostgreSQL удаление, отметка для синхронизации и дельта сводок - один запрос
     @Transactional
     public void deleteItem(UUID userId, UUID wishlistId, UUID itemId) {
+        if (!returningWrites) {
+            deleteItemStepwise(userId, wishlistId, itemId);
+            return;
+        }
 
-        String username = securityUtil.getCurrentUsername();
+        List<UUID> wishlistIds = itemRepository.deleteReturning(itemId, userId, wishlistId,
+                UuidV7.generateNonSecret(), SyncEntityType.ITEM.name(), Instant.now());
+        if (wishlistIds.isEmpty()) {
+            throw deleteFailed(wishlistId, itemId);
+        }
+
+        cacheInvalidator.invalidateItem(itemId);
+        cacheInvalidator.invalidateItemLinks(itemId);
+        cacheInvalidator.invalidateWishlistLinks(wishlistIds);
+        evictSummaries(wishlistIds);
+        log.info("Предмет с id='{}' удален", itemId);
+    }
+
+    private void deleteItemStepwise(UUID userId, UUID wishlistId, UUID itemId) {
+        // Цена нужна для дельты сводки, а пустой результат уже означает 404
+        Integer price = itemRepository.lockPrice(itemId, userId, wishlistId, null)
+                .orElseThrow(() -> deleteFailed(wishlistId, itemId));
+
+        // Связи удаляются каскадом, поэтому вишлисты предмета запоминаем до удаления
+        List<UUID> wishlistIds = itemWishlistRepository.findWishlistIdsByItemId(itemId);
+        if (itemRepository.deleteGuarded(itemId, userId, wishlistId) == 0) {
+            throw deleteFailed(wishlistId, itemId);
+        }
+        cacheInvalidator.invalidateItem(itemId);
+        cacheInvalidator.invalidateItemLinks(itemId);
+        cacheInvalidator.invalidateWishlistLinks(wishlistIds);
+        syncTombstoneRepository.save(SyncTombstone.builder()
+                .userId(userId)
+                .entityType(SyncEntityType.ITEM)
+                .entityId(itemId)
+                .build());
+        applyItemDelta(wishlistIds, -1, -price);
+        log.info("Предмет с id='{}' удален", itemId);
+    }
 
-        Wishlist wishlist = wishlistRepository.findByIdAndUserId(wishlistId, userId)
-                .orElseThrow(() -> {
-                    log.warn("Ошибка при удалении предмета: Вишлист с id='{}' не найден у пользователя '{}'", wishlistId, username);
-                    return new NotFoundException("Вишлист не найден");
-                });
+    private NotFoundException deleteFailed(UUID wishlistId, UUID itemId) {
+        log.warn("Ошибка при удалении предмета: предмет с id='{}' не найден в вишлисте с id='{}'", itemId, wishlistId);
+        return new NotFoundException("Предмет не найден");
+    }
+
+    // Вызывается до записи предметов. Кэш владельцев может помнить вишлист, уже удаленный на другом
+    // экземпляре API: UPDATE сводки тогда обновит 0 строк, и запрос закончится 404 без нарушения внешнего ключа.
+    // Если строка обновлена, она заблокирована, и удаление вишлиста дождется нашего коммита.
+    // Новые связи пишутся через ссылку на вишлист, поэтому его коллекцию связей в кэше сбрасываем сами
+    private void applyItemDeltaToExisting(UUID wishlistId, int countDelta, long priceDelta) {
+        if (wishlistRepository.applyItemDelta(List.of(wishlistId), countDelta, priceDelta, Instant.now()) == 0) {
+            wishlistOwnerCache.evict(wishlistId);
+            throw new NotFoundException("Вишлист не найден");
+        }
+        cacheInvalidator.invalidateWishlistLinks(List.of(wishlistId));
+        evictSummaries(List.of(wishlistId));
+    }
 
-        Item item = itemRepository.findByIdAndUserId(itemId, userId)
-                .orElseThrow(() -> {
-                    log.warn("Ошибка при удалении предмета: Предмет с id='{}' не найден у пользователя '{}'", itemId, username);
-                    return new NotFoundException("Предмет не найден");
-                });
+    // Сводка обновляется в той же транзакции, что и предметы, одним UPDATE на все затронутые вишлисты
+    private void applyItemDelta(List<UUID> wishlistIds, int countDelta, long priceDelta) {
+        if (wishlistIds.isEmpty()) {
+            return;
+        }
+        wishlistRepository.applyItemDelta(wishlistIds, countDelta, priceDelta, Instant.now());
+        evictSummaries(wishlistIds);
+    }
 
-        ItemWishlist itemWishlist = itemWishlistRepository.findByItemIdAndWishlistId(itemId, wishlistId)
-                .orElseThrow(() -> {
-                    log.warn("Ошибка при удалении предмета: Предмет с id='{}' не принадлежит вишлисту с id='{}'", itemId, wishlistId);
-                    return new NotFoundException("Предмет не принадлежит этому вишлисту");
-                });
+    // Сводки меняются нативными запросами: Hibernate о них не знает, сбрасываем кэши сами
+    private void evictSummaries(List<UUID> wishlistIds) {
+        cacheInvalidator.invalidateWishlists(wishlistIds);
+        wishlistIds.forEach(sharedWishlistCache::evict);
+    }
 
-        itemRepository.delete(item);
-        log.info("Предмет '{}' удален пользователем '{}'", item.getName(), username);
+    private long priceOf(Integer price) {
+        return price == null ? 0 : price;
     }
 }
@@ -0,0 +1,186 @@
+package org.ataraxii.wishlist.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.wishlist.config.PrimaryReads;
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.SyncTombstone;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.projection.SyncLinkView;
+import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.database.repository.SyncTombstoneRepository;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.ataraxii.wishlist.dto.item.ItemResponseDto;
+import org.ataraxii.wishlist.dto.sync.SyncLinkDto;
+import org.ataraxii.wishlist.dto.sync.SyncResponseDto;
+import org.ataraxii.wishlist.dto.sync.SyncTombstoneDto;
+import org.ataraxii.wishlist.exception.BadRequestException;
+import org.ataraxii.wishlist.mapper.ItemMapper;
+import org.ataraxii.wishlist.mapper.SyncCursor.Kind;
+import org.ataraxii.wishlist.mapper.SyncCursor;
+import org.ataraxii.wishlist.mapper.SyncTokenMapper;
+import org.ataraxii.wishlist.mapper.WishlistMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private final WishlistRepository wishlistRepository;
+    private final ItemRepository itemRepository;
+    private final ItemWishlistRepository itemWishlistRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final WishlistMapper wishlistMapper;
+    private final ItemMapper itemMapper;
+    private final SyncTokenMapper syncTokenMapper;
+
+    @Value("${wishlist.sync.default-size:200}")
+    private int defaultPageSize;
+
+    @Value("${wishlist.sync.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${wishlist.sync.lag:PT5S}")
+    private Duration lag;
+
+    @Value("${wishlist.sync.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    // Изменения всех видов после токена одной страницей. Каждый вид читается своим keyset-запросом
+    // по (updated_at, id) с лимитом страницы, затем потоки сливаются по (время, вид).
+    // Read-only, но с основной базы: окно lag не учитывает отставание реплик
+    @Transactional(readOnly = true)
+    public SyncResponseDto sync(UUID userId, String token, Integer limit) {
+        PrimaryReads.require();
+        int pageSize = resolvePageSize(limit);
+        Instant now = Instant.now();
+
+        SyncCursor cursor = token == null || token.isBlank() ? null : syncTokenMapper.fromSyncToken(token);
+        // Отметки об удалении старше срока хранения уже стерты, такому клиенту нужна полная загрузка
+        boolean reset = cursor == null || cursor.since().isBefore(now.minus(tombstoneRetention));
+        if (reset) {
+            cursor = SyncCursor.startingAt(Instant.EPOCH);
+        }
+
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Change> changes = new ArrayList<>();
+        for (Wishlist wishlist : wishlistRepository.findChangedSince(userId, cursor.since(),
+                cursor.includesTies(Kind.WISHLIST), uuidKey(cursor.afterKey(Kind.WISHLIST)), fetchLimit)) {
+            changes.add(new Change(wishlist.getUpdatedAt(), Kind.WISHLIST, wishlist.getId().toString(), wishlist));
+        }
+        for (Item item : itemRepository.findChangedSince(userId, cursor.since(),
+                cursor.includesTies(Kind.ITEM), uuidKey(cursor.afterKey(Kind.ITEM)), fetchLimit)) {
+            changes.add(new Change(item.getUpdatedAt(), Kind.ITEM, item.getId().toString(), item));
+        }
+        for (SyncLinkView link : itemWishlistRepository.findChangedSince(userId, cursor.since(),
+                cursor.includesTies(Kind.LINK), longKey(cursor.afterKey(Kind.LINK)), fetchLimit)) {
+            changes.add(new Change(link.getUpdatedAt(), Kind.LINK, link.getId().toString(), link));
+        }
+        for (SyncTombstone tombstone : syncTombstoneRepository.findChangedSince(userId, cursor.since(),
+                cursor.includesTies(Kind.TOMBSTONE), uuidKey(cursor.afterKey(Kind.TOMBSTONE)), fetchLimit)) {
+            changes.add(new Change(tombstone.getDeletedAt(), Kind.TOMBSTONE, tombstone.getId().toString(), tombstone));
+        }
+
+        // Сортировка устойчивая: внутри одного вида и времени сохраняется порядок id из БД
+        changes.sort(Comparator.comparing(Change::at).thenComparing(Change::kind));
+        boolean hasMore = changes.size() > pageSize;
+        List<Change> page = hasMore ? changes.subList(0, pageSize) : changes;
+
+        SyncCursor next = page.isEmpty() ? cursor : page.get(page.size() - 1).cursor();
+        if (!hasMore) {
+            // Время изменения выставляется до коммита, поэтому запись с временем чуть раньше последней
+            // отданной может стать видна позже. Последние lag секунд клиент получит еще раз в следующий раз
+            Instant horizon = now.minus(lag).truncatedTo(ChronoUnit.MICROS);
+            if (next.since().isAfter(horizon)) {
+                next = SyncCursor.startingAt(horizon);
+            }
+        }
+
+        log.info("Синхронизация пользователя {}: {} изменений, есть еще: {}, полная: {}", userId, page.size(), hasMore, reset);
+        return toResponse(page, syncTokenMapper.toSyncToken(next), hasMore, reset);
+    }
+
+    private SyncResponseDto toResponse(List<Change> page, String nextToken, boolean hasMore, boolean reset) {
+        List<WishlistResponseDto> wishlists = new ArrayList<>();
+        List<ItemResponseDto> items = new ArrayList<>();
+        List<SyncLinkDto> links = new ArrayList<>();
+        List<SyncTombstoneDto> deleted = new ArrayList<>();
+        for (Change change : page) {
+            switch (change.kind()) {
+                case WISHLIST -> wishlists.add(wishlistMapper.toDto((Wishlist) change.payload()));
+                case ITEM -> items.add(itemMapper.toDto((Item) change.payload()));
+                case LINK -> {
+                    SyncLinkView link = (SyncLinkView) change.payload();
+                    links.add(SyncLinkDto.builder()
+                            .wishlistId(link.getWishlistId())
+                            .itemId(link.getItemId())
+                            .build());
+                }
+                case TOMBSTONE -> {
+                    SyncTombstone tombstone = (SyncTombstone) change.payload();
+                    deleted.add(SyncTombstoneDto.builder()
+                            .type(tombstone.getEntityType())
+                            .id(tombstone.getEntityId())
+                            .wishlistId(tombstone.getWishlistId())
+                            .build());
+                }
+            }
+        }
+        return SyncResponseDto.builder()
+                .wishlists(wishlists)
+                .items(items)
+                .links(links)
+                .deleted(deleted)
+                .nextToken(nextToken)
+                .hasMore(hasMore)
+                .reset(reset)
+                .build();
+    }
+
+    private UUID uuidKey(String key) {
+        try {
+            return key == null ? null : UUID.fromString(key);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Некорректный токен синхронизации");
+        }
+    }
+
+    private Long longKey(String key) {
+        try {
+            return key == null ? null : Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Некорректный токен синхронизации");
+        }
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("Размер страницы должен быть положительным");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private record Change(Instant at, Kind kind, String key, Object payload) {
+
+        SyncCursor cursor() {
+            return new SyncCursor(at, kind, key);
+        }
+    }
+}
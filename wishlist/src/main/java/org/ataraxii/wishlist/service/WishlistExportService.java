@@ -0,0 +1,72 @@
+package org.ataraxii.wishlist.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ataraxii.wishlist.database.projection.WishlistExportRow;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.ataraxii.wishlist.dto.wishlist.WishlistExportLineDto;
+import org.ataraxii.wishlist.mapper.WishlistMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WishlistExportService {
+
+    private final WishlistRepository wishlistRepository;
+    private final WishlistMapper wishlistMapper;
+    private final ObjectMapper objectMapper;
+
+    // Пишет все вишлисты пользователя в NDJSON: строка вишлиста, затем строки его предметов.
+    // В памяти держится только текущая строка результата, поэтому расход heap не зависит от объема выгрузки.
+    // Транзакция нужна, чтобы драйвер читал результат курсором, а не целиком
+    @Transactional(readOnly = true)
+    public void exportWishlists(UUID userId, OutputStream out) throws IOException {
+        log.info("Выгрузка вишлистов пользователя {}", userId);
+
+        // Без flush на каждой строке: генератор и контейнер сами сбрасывают буферы по заполнении
+        ObjectWriter writer = objectMapper.writerFor(WishlistExportLineDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long wishlists = 0;
+        long items = 0;
+        try (Stream<WishlistExportRow> rows = wishlistRepository.streamExportRowsByUserId(userId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Поток ответа закрывает контейнер сервлетов, а строки разделяем сами переводом строки
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            UUID currentWishlistId = null;
+            Iterator<WishlistExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                WishlistExportRow row = iterator.next();
+                if (!row.wishlistId().equals(currentWishlistId)) {
+                    currentWishlistId = row.wishlistId();
+                    writeLine(writer, generator, wishlistMapper.toWishlistExportLine(row));
+                    wishlists++;
+                }
+                if (row.itemId() != null) {
+                    writeLine(writer, generator, wishlistMapper.toItemExportLine(row));
+                    items++;
+                }
+            }
+        }
+
+        log.info("Выгружено {} вишлистов и {} предметов пользователя {}", wishlists, items, userId);
+    }
+
+    private void writeLine(ObjectWriter writer, JsonGenerator generator, WishlistExportLineDto line) throws IOException {
+        writer.writeValue(generator, line);
+        generator.writeRaw('\n');
+    }
+}
@@ -1,18 +1,39 @@
 package org.ataraxii.wishlist.service;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.ataraxii.common.dto.wishlist.WishlistItemsResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistPageResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.common.mapper.CursorMapper;
+import org.ataraxii.common.mapper.EtagMapper;
+import org.ataraxii.wishlist.config.PrimaryReads;
+import org.ataraxii.wishlist.database.entity.SyncEntityType;
+import org.ataraxii.wishlist.database.entity.SyncTombstone;
 import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.projection.WishlistVersionView;
+import org.ataraxii.wishlist.database.repository.SyncTombstoneRepository;
 import org.ataraxii.wishlist.database.repository.WishlistRepository;
 import org.ataraxii.wishlist.dto.wishlist.WishlistDto;
-import org.ataraxii.wishlist.dto.wishlist.WishlistItemsResponseDto;
-import org.ataraxii.wishlist.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.wishlist.exception.BadRequestException;
 import org.ataraxii.wishlist.exception.NotFoundException;
+import org.ataraxii.wishlist.exception.PreconditionFailedException;
 import org.ataraxii.wishlist.mapper.WishlistMapper;
-import org.ataraxii.wishlist.security.SecurityUtil;
+import org.ataraxii.wishlist.service.cache.SecondLevelCacheInvalidator;
+import org.ataraxii.wishlist.service.cache.SharedWishlistCache;
+import org.ataraxii.wishlist.service.cache.SharedWishlistView;
+import org.ataraxii.wishlist.service.cache.WishlistOwnerCache;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -22,15 +43,30 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class WishlistService {
 
+    private static final String WISHLIST_LINKS_ROLE = Wishlist.class.getName() + ".itemWishlist";
+
     private final WishlistRepository wishlistRepository;
     private final WishlistMapper wishlistMapper;
-    private final SecurityUtil securityUtil;
+    private final CursorMapper cursorMapper;
+    private final SharedWishlistCache sharedWishlistCache;
+    private final EtagMapper etagMapper;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final WishlistOwnerCache wishlistOwnerCache;
+    private final PlatformTransactionManager transactionManager;
+    private final SecondLevelCacheInvalidator cacheInvalidator;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${wishlist.l2-cache.enabled:false}")
+    private boolean secondLevelCacheEnabled;
+
+    @Value("${wishlist.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${wishlist.page.max-size:100}")
+    private int maxPageSize;
 
     @Transactional
     public WishlistResponseDto createWishlist(WishlistDto dto, UUID userId) {
-        String username = securityUtil.getCurrentUsername();
-        log.info("Создание вишлиста {} пользователем {}", dto.getName(), username);
-
         Wishlist wishlist = Wishlist.builder()
                 .name(dto.getName())
                 .comment(dto.getComment())
@@ -39,33 +75,87 @@ public class WishlistService {
                 .build();
 
         wishlistRepository.save(wishlist);
+        wishlistOwnerCache.remember(wishlist.getId(), userId);
 
-        log.info("Вишлист {} успешно создан пользователем {}", dto.getName(), username);
+        log.info("Вишлист с id='{}' создан", wishlist.getId());
         return wishlistMapper.toDto(wishlist);
     }
 
-    public List<WishlistResponseDto> findAllWishlists(UUID userId) {
-        String username = securityUtil.getCurrentUsername();
-        List<Wishlist> wishlists = wishlistRepository.findByUserId(userId);
-        log.info("Найдено {} вишлистов у пользователя {}", wishlists.size(), username);
-        return wishlists.stream()
-                .map(wishlistMapper::toDto)
-                .collect(Collectors.toList());
+    // Чтения в read-only транзакциях: при настроенных репликах они уходят туда (ReplicaDataSourceConfig)
+    @Transactional(readOnly = true)
+    public WishlistPageResponseDto findAllWishlists(UUID userId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+
+        // Запрашиваем на одну запись больше, чтобы узнать, есть ли следующая страница
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Wishlist> wishlists = cursor == null || cursor.isBlank()
+                ? wishlistRepository.findByUserIdOrderByIdAsc(userId, fetchLimit)
+                : wishlistRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, cursorMapper.fromCursor(cursor), fetchLimit);
+
+        boolean hasNext = wishlists.size() > pageSize;
+        List<Wishlist> page = hasNext ? wishlists.subList(0, pageSize) : wishlists;
+        log.info("Найдено {} вишлистов", page.size());
+
+        return WishlistPageResponseDto.builder()
+                .items(page.stream()
+                        .map(wishlistMapper::toDto)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasNext ? cursorMapper.toCursor(page.get(page.size() - 1).getId()) : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public String findWishlistsEtag(UUID userId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<WishlistVersionView> versions = cursor == null || cursor.isBlank()
+                ? wishlistRepository.findVersionsByUserIdOrderByIdAsc(userId, fetchLimit)
+                : wishlistRepository.findVersionsByUserIdAndIdGreaterThanOrderByIdAsc(userId, cursorMapper.fromCursor(cursor), fetchLimit);
+
+        boolean hasNext = versions.size() > pageSize;
+        List<WishlistVersionView> page = hasNext ? versions.subList(0, pageSize) : versions;
+        return etagMapper.toPageEtag(page, WishlistVersionView::getId, WishlistVersionView::getVersion, hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public long findWishlistVersion(UUID userId, UUID id) {
+        return wishlistRepository.findVersionByIdAndUserId(id, userId)
+                .orElseThrow(() -> new NotFoundException("Вишлист с таким id не найден"));
     }
 
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("Размер страницы должен быть положительным");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    @Transactional(readOnly = true)
     public WishlistItemsResponseDto findWishlistById(UUID userId, UUID id) {
-        String username = securityUtil.getCurrentUsername();
-        Wishlist wishlist = wishlistRepository.findByIdAndUserId(id, userId)
+        // Вишлист и его связи в кэше второго уровня - читаем по id, и при попадании запросов в БД нет
+        // (предметы тоже берутся из кэша, в БД идут только сброшенные после записи).
+        // Иначе - один запрос с JOIN FETCH, он же кладет вишлист, связи и предметы в кэш
+        Wishlist wishlist = (secondLevelCacheEnabled && isCachedWithLinks(id)
+                ? wishlistRepository.findById(id).filter(found -> found.getUserId().equals(userId))
+                : wishlistRepository.findWithItemsByIdAndUserId(id, userId))
                 .orElse(null);
 
         if (wishlist == null) {
-            log.warn("Ошибка поиска вишлиста: вишлист с id={} не найден у пользователя {}", id, username);
+            log.warn("Ошибка поиска вишлиста: вишлист с id={} не найден", id);
             throw new NotFoundException("Вишлист с таким id не найдена");
         }
-        log.info("Вишлист {} найден у пользователя {}", wishlist.getName(), username);
+        log.info("Вишлист с id='{}' найден", id);
         return wishlistMapper.toDtoWithItems(wishlist);
     }
 
+    private boolean isCachedWithLinks(UUID id) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        return cache.containsEntity(Wishlist.class, id) && cache.containsCollection(WISHLIST_LINKS_ROLE, id);
+    }
+
     // На переработке
 
 //    public WishlistResponseDto updateWishlist(UUID userId, UUID itemId, WishlistDto dto) {
@@ -87,41 +177,70 @@ public class WishlistService {
 //        return wishlistMapper.toDto(wishlist);
 //    }
 
-        public WishlistResponseDto updateWishlist(UUID userId, UUID wishlistId, WishlistDto dto) {
-        String username = securityUtil.getCurrentUsername();
+    @Transactional
+    public WishlistResponseDto updateWishlist(UUID userId, UUID wishlistId, WishlistDto dto, Long expectedVersion) {
+        if (expectedVersion != null) {
+            return updateWishlistIfVersionMatches(userId, wishlistId, dto, expectedVersion);
+        }
 
         Wishlist wishlist = wishlistRepository.findByIdAndUserId(wishlistId, userId)
                 .orElseThrow(() -> {
-                    log.warn("Ошибка обновления вишлиста: вишлист с id='{}' не найден у пользователя '{}'", wishlistId, username);
+                    log.warn("Ошибка обновления вишлиста: вишлист с id='{}' не найден", wishlistId);
                     return new NotFoundException("Вишлист с таким id не найден");
                 });
 
-        log.info("Обновление вишлиста '{}' пользователем '{}'", wishlist.getName(), username);
-
         if (dto.getName() != null) wishlist.setName(dto.getName());
         if (dto.getComment() != null) wishlist.setComment(dto.getComment());
         if (dto.getDate() != null) wishlist.setDate(dto.getDate());
 
-        wishlistRepository.save(wishlist);
-        return wishlistMapper.toDto(wishlist);
+        Wishlist saved = wishlistRepository.saveAndFlush(wishlist);
+        sharedWishlistCache.evict(wishlistId);
+        log.info("Вишлист с id='{}' обновлен", wishlistId);
+        return wishlistMapper.toDto(saved);
+    }
+
+    private WishlistResponseDto updateWishlistIfVersionMatches(UUID userId, UUID wishlistId, WishlistDto dto, long expectedVersion) {
+        int updated = wishlistRepository.updateIfVersionMatches(wishlistId, userId, expectedVersion,
+                dto.getName(), dto.getComment(), dto.getDate(), Instant.now());
+        cacheInvalidator.invalidateWishlists(List.of(wishlistId));
+
+        if (updated == 0) {
+            if (!wishlistRepository.existsByIdAndUserId(wishlistId, userId)) {
+                log.warn("Ошибка обновления вишлиста: вишлист с id='{}' не найден", wishlistId);
+                throw new NotFoundException("Вишлист с таким id не найден");
+            }
+            log.warn("Ошибка обновления вишлиста: версия вишлиста с id='{}' не совпадает с If-Match", wishlistId);
+            throw new PreconditionFailedException("Вишлист был изменен, версия не совпадает");
+        }
+
+        log.info("Вишлист с id='{}' обновлен", wishlistId);
+        sharedWishlistCache.evict(wishlistId);
+        return wishlistRepository.findByIdAndUserId(wishlistId, userId)
+                .map(wishlistMapper::toDto)
+                .orElseThrow(() -> new NotFoundException("Вишлист с таким id не найден"));
     }
 
     @Transactional
     public void deleteWishlist(UUID userId, UUID id) {
-        String username = securityUtil.getCurrentUsername();
         Wishlist wishlist = wishlistRepository.findByIdAndUserId(id, userId)
                 .orElse(null);
         if (wishlist == null) {
-            log.warn("Ошибка удаления вишлиста: вишлист с id={} не найден у пользователя {}", id, username);
+            log.warn("Ошибка удаления вишлиста: вишлист с id={} не найден", id);
             throw new NotFoundException("Вишлист с таким id не найден");
         }
         wishlistRepository.delete(wishlist);
-        log.info("Вишлист {} удален пользователем {}", wishlist.getName(), username);
+        syncTombstoneRepository.save(SyncTombstone.builder()
+                .userId(userId)
+                .entityType(SyncEntityType.WISHLIST)
+                .entityId(id)
+                .build());
+        sharedWishlistCache.evict(id);
+        wishlistOwnerCache.evict(id);
+        log.info("Вишлист с id='{}' удален", id);
     }
 
     public WishlistItemsResponseDto checkShared(UUID id) {
-        Wishlist wishlist = wishlistRepository.findById(id)
-                .filter(Wishlist::isShared)
+        Wishlist wishlist = wishlistRepository.findWithItemsByIdAndSharedTrue(id)
                 .orElse(null);
 
         if (wishlist == null) {
@@ -131,18 +250,43 @@ public class WishlistService {
         return wishlistMapper.toDtoWithItems(wishlist);
     }
 
+    // Транзакция только на промахе: попадание в кэш не ходит в БД и не берет соединение из пула.
+    // Read-only, но с основной базы: результат живет в SharedWishlistCache до TTL, и отстающая реплика
+    // закэшировала бы состояние до последнего изменения
+    public SharedWishlistView getSharedView(UUID id) {
+        return sharedWishlistCache.get(id, () -> readOnlyTransaction().execute(status -> {
+            PrimaryReads.require();
+            return checkShared(id);
+        }));
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
     @Transactional
     public void setShared(UUID userId, UUID id) {
-        String username = securityUtil.getCurrentUsername();
+        changeShared(userId, id, true);
+    }
+
+    @Transactional
+    public void unsetShared(UUID userId, UUID id) {
+        changeShared(userId, id, false);
+    }
+
+    private void changeShared(UUID userId, UUID id, boolean shared) {
         Wishlist wishlist = wishlistRepository.findByIdAndUserId(id, userId)
                 .orElse(null);
 
         if (wishlist == null) {
-            log.warn("Вишлист с id={} не найден у пользователя {}", id, username);
+            log.warn("Вишлист с id={} не найден", id);
             throw new NotFoundException("Вишлист с таким id не найден");
         }
 
-        wishlist.setShared(true);
+        wishlist.setShared(shared);
         wishlistRepository.save(wishlist);
+        sharedWishlistCache.evict(id);
     }
 }
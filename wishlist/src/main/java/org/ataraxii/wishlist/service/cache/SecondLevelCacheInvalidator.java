@@ -0,0 +1,83 @@
+package org.ataraxii.wishlist.service.cache;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.hibernate.cache.spi.access.CachedDomainDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Сбрасывает в кэше второго уровня записи, которые меняются в обход Hibernate: нативные UPDATE/DELETE
+// в ItemRepository правят предмет и сводки вишлистов, а связи item_wishlist удаляет каскад в БД.
+// Сбрасываются только затронутые id, регион целиком не чистится.
+// Как и Hibernate для своих изменений, ставим мягкую блокировку до конца транзакции: пока она стоит,
+// параллельное чтение не положит в кэш состояние до нашего коммита. Без кэша второго уровня ничего не делает
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheInvalidator {
+
+    private static final String WISHLIST_LINKS_ROLE = Wishlist.class.getName() + ".itemWishlist";
+    private static final String ITEM_LINKS_ROLE = Item.class.getName() + ".itemWishlist";
+
+    private final EntityManager entityManager;
+
+    public void invalidateWishlists(Collection<UUID> wishlistIds) {
+        invalidateEntities(Wishlist.class, wishlistIds);
+    }
+
+    public void invalidateItem(UUID itemId) {
+        invalidateEntities(Item.class, List.of(itemId));
+    }
+
+    public void invalidateWishlistLinks(Collection<UUID> wishlistIds) {
+        invalidateCollections(WISHLIST_LINKS_ROLE, wishlistIds);
+    }
+
+    public void invalidateItemLinks(UUID itemId) {
+        invalidateCollections(ITEM_LINKS_ROLE, List.of(itemId));
+    }
+
+    private void invalidateEntities(Class<?> entityClass, Collection<UUID> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        for (UUID id : ids) {
+            Object key = persister.getCacheAccessStrategy()
+                    .generateCacheKey(id, persister, factory, session.getTenantIdentifier());
+            invalidate(session, persister.getCacheAccessStrategy(), key);
+        }
+    }
+
+    private void invalidateCollections(String role, Collection<UUID> ownerIds) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        CollectionPersister persister = factory.getMappingMetamodel().getCollectionDescriptor(role);
+        if (!persister.hasCache()) {
+            return;
+        }
+        for (UUID ownerId : ownerIds) {
+            Object key = persister.getCacheAccessStrategy()
+                    .generateCacheKey(ownerId, persister, factory, session.getTenantIdentifier());
+            invalidate(session, persister.getCacheAccessStrategy(), key);
+        }
+    }
+
+    private void invalidate(SessionImplementor session, CachedDomainDataAccess cacheAccess, Object key) {
+        SoftLock lock = cacheAccess.lockItem(session, key, null);
+        cacheAccess.remove(session, key);
+        session.getActionQueue().registerProcess((success, completedSession) ->
+                cacheAccess.unlockItem(completedSession, key, lock));
+    }
+}
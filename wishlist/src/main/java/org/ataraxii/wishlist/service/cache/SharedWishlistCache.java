@@ -0,0 +1,113 @@
+package org.ataraxii.wishlist.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.ataraxii.common.dto.wishlist.WishlistItemsResponseDto;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Кэш публичных вишлистов (/shared/wishlists/{id}). Хранит готовый JSON, чтобы горячий путь не ходил в БД
+// и не сериализовал ответ заново. Записи сбрасываются при любом изменении вишлиста или его предметов.
+// Кэш асинхронный, чтобы загрузка из БД шла вне блокировки ConcurrentHashMap.compute: на виртуальных потоках
+// ожидание JDBC внутри synchronized закрепило бы поток-носитель
+@Slf4j
+@Component
+public class SharedWishlistCache {
+
+    private static final String CACHE_NAME = "wishlist.shared";
+
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<UUID, SharedWishlistView> cache;
+
+    public SharedWishlistCache(ObjectMapper objectMapper,
+                               ObjectProvider<MeterRegistry> meterRegistry,
+                               @Value("${wishlist.shared-cache.maximum-size:1000}") long maximumSize,
+                               @Value("${wishlist.shared-cache.ttl:PT10M}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    // Загружает вызывающий поток, параллельные запросы того же вишлиста ждут его future
+    public SharedWishlistView get(UUID wishlistId, Supplier<WishlistItemsResponseDto> loader) {
+        CompletableFuture<SharedWishlistView> loading = new CompletableFuture<>();
+        CompletableFuture<SharedWishlistView> existing = cache.asMap().putIfAbsent(wishlistId, loading);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            SharedWishlistView view = toView(loader.get());
+            loading.complete(view);
+            return view;
+        } catch (RuntimeException e) {
+            // неудачная загрузка удаляется из кэша, ожидающие получат то же исключение
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Сбрасываем сразу и еще раз после коммита: иначе параллельный читатель может успеть
+    // положить в кэш состояние, прочитанное до коммита текущей транзакции
+    public void evict(UUID wishlistId) {
+        cache.synchronous().invalidate(wishlistId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.synchronous().invalidate(wishlistId);
+                }
+            });
+        }
+    }
+
+    private static SharedWishlistView await(CompletableFuture<SharedWishlistView> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // отдаем исходное исключение загрузчика, например NotFoundException
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private SharedWishlistView toView(WishlistItemsResponseDto dto) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(dto);
+            return new SharedWishlistView(body, etag(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать вишлист " + dto.getId(), e);
+        }
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package org.ataraxii.wishlist.service.cache;
+
+// Уже сериализованное публичное представление вишлиста и его строгий ETag
+public record SharedWishlistView(byte[] body, String etag) {
+}
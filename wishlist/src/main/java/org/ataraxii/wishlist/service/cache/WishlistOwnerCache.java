@@ -0,0 +1,57 @@
+package org.ataraxii.wishlist.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Владелец вишлиста по его id. Владелец у вишлиста не меняется, а id не переиспользуются, поэтому запись
+// не устаревает и кэш безопасен при нескольких экземплярах API. Вишлист, удаленный на другом экземпляре,
+// пройдет проверку, но запись в него все равно не состоится (см. ItemService.applyItemDelta)
+@Component
+public class WishlistOwnerCache {
+
+    private static final String CACHE_NAME = "wishlist.owners";
+
+    private final WishlistRepository wishlistRepository;
+    private final Cache<UUID, UUID> cache;
+
+    public WishlistOwnerCache(WishlistRepository wishlistRepository,
+                              ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${wishlist.owner-cache.maximum-size:100000}") long maximumSize) {
+        this.wishlistRepository = wishlistRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    public boolean isOwner(UUID wishlistId, UUID userId) {
+        UUID ownerId = cache.getIfPresent(wishlistId);
+        if (ownerId == null) {
+            // Загрузка вне Cache.get: ожидание JDBC внутри ConcurrentHashMap.compute закрепило бы виртуальный поток.
+            // Отсутствующие id не кэшируются
+            ownerId = wishlistRepository.findUserIdById(wishlistId).orElse(null);
+            if (ownerId == null) {
+                return false;
+            }
+            cache.put(wishlistId, ownerId);
+        }
+        return ownerId.equals(userId);
+    }
+
+    public void remember(UUID wishlistId, UUID ownerId) {
+        cache.put(wishlistId, ownerId);
+    }
+
+    public void evict(UUID wishlistId) {
+        cache.invalidate(wishlistId);
+    }
+}
@@ -0,0 +1,38 @@
+package org.ataraxii.wishlist.service.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ataraxii.wishlist.database.repository.SyncTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Отметки об удалении нужны, пока ими могут воспользоваться клиенты. Клиент с токеном старше
+// срока хранения получает полную выгрузку (см. SyncService), поэтому старые отметки удаляются
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncTombstoneCleanupJob {
+
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${wishlist.sync.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    @Scheduled(cron = "${wishlist.sync.tombstone-cleanup.cron:0 0 4 * * *}")
+    public void run() {
+        cleanup();
+    }
+
+    public int cleanup() {
+        Instant before = Instant.now().minus(tombstoneRetention);
+        Integer deleted = transactionTemplate.execute(status -> syncTombstoneRepository.deleteByDeletedAtBefore(before));
+        log.info("Удалено {} отметок об удалении старше {}", deleted, before);
+        return deleted == null ? 0 : deleted;
+    }
+}
@@ -0,0 +1,78 @@
+package org.ataraxii.wishlist.service.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.ataraxii.wishlist.service.cache.SecondLevelCacheInvalidator;
+import org.ataraxii.wishlist.service.cache.SharedWishlistCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// Проверка согласованности сводок вишлистов (item_count, total_price) с предметами.
+// Идет пачками по id, каждая пачка в своей транзакции, и пересчитывает только разошедшиеся строки
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WishlistSummaryRebuildJob {
+
+    private final WishlistRepository wishlistRepository;
+    private final SharedWishlistCache sharedWishlistCache;
+    private final SecondLevelCacheInvalidator cacheInvalidator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${wishlist.summary.rebuild.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${wishlist.summary.rebuild.cron:0 30 3 * * *}")
+    public void run() {
+        rebuild();
+    }
+
+    // Возвращает число исправленных вишлистов
+    public int rebuild() {
+        log.info("Проверка сводок вишлистов");
+
+        int checked = 0;
+        int fixed = 0;
+        UUID lastId = null;
+        BatchResult batch;
+        do {
+            UUID after = lastId;
+            batch = transactionTemplate.execute(status -> rebuildBatch(after));
+            checked += batch.size();
+            fixed += batch.fixed();
+            lastId = batch.lastId();
+        } while (batch.size() == batchSize);
+
+        log.info("Проверено {} вишлистов, исправлено сводок: {}", checked, fixed);
+        return fixed;
+    }
+
+    private BatchResult rebuildBatch(UUID after) {
+        List<UUID> ids = after == null
+                ? wishlistRepository.lockIdsOrderByIdAsc(Limit.of(batchSize))
+                : wishlistRepository.lockIdsByIdGreaterThanOrderByIdAsc(after, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return new BatchResult(after, 0, 0);
+        }
+
+        List<UUID> stale = wishlistRepository.findIdsWithStaleSummary(ids);
+        if (!stale.isEmpty()) {
+            log.warn("Сводки вишлистов разошлись с предметами и будут пересчитаны: {}", stale);
+            wishlistRepository.rebuildSummaries(stale, Instant.now());
+            cacheInvalidator.invalidateWishlists(stale);
+            stale.forEach(sharedWishlistCache::evict);
+        }
+        return new BatchResult(ids.get(ids.size() - 1), ids.size(), stale.size());
+    }
+
+    private record BatchResult(UUID lastId, int size, int fixed) {
+    }
+}
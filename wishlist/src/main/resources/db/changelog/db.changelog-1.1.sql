@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset ataraxii:2 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_wishlist_user_id_id ON wishlist (user_id, id);
+
+--changeset ataraxii:3 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_item_user_id_id ON item (user_id, id);
+
+--changeset ataraxii:4 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_item_wishlist_wishlist_id_item_id ON item_wishlist (wishlist_id, item_id);
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset ataraxii:5
+ALTER TABLE wishlist ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE item ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
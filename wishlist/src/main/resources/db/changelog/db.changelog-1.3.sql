@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset ataraxii:6
+-- item_wishlist.id выдается Hibernate блоками по 50 (pooled-оптимизатор), чтобы вставки связей шли батчами
+ALTER SEQUENCE item_wishlist_id_seq INCREMENT BY 50;
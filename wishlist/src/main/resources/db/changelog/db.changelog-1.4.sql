@@ -0,0 +1,17 @@
+--liquibase formatted sql
+
+--changeset ataraxii:7
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+ALTER TABLE item ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(name, '')), 'A')
+                         || setweight(to_tsvector('simple', coalesce(comment, '')), 'B')) STORED;
+
+--changeset ataraxii:8 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_item_search_vector ON item USING gin (user_id, search_vector);
+
+--changeset ataraxii:9 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_item_name_trgm ON item USING gin (user_id, name gin_trgm_ops);
+
+--changeset ataraxii:10 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_item_comment_trgm ON item USING gin (user_id, comment gin_trgm_ops);
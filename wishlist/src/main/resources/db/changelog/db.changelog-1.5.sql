@@ -0,0 +1,15 @@
+--liquibase formatted sql
+
+--changeset ataraxii:11
+ALTER TABLE wishlist ADD COLUMN IF NOT EXISTS item_count int NOT NULL DEFAULT 0;
+ALTER TABLE wishlist ADD COLUMN IF NOT EXISTS total_price bigint NOT NULL DEFAULT 0;
+ALTER TABLE wishlist ADD COLUMN IF NOT EXISTS updated_at timestamptz NOT NULL DEFAULT now();
+
+UPDATE wishlist w
+SET item_count  = s.item_count,
+    total_price = s.total_price
+FROM (SELECT iw.wishlist_id, count(*) AS item_count, coalesce(sum(i.price), 0) AS total_price
+      FROM item_wishlist iw
+               JOIN item i ON i.id = iw.item_id
+      GROUP BY iw.wishlist_id) s
+WHERE s.wishlist_id = w.id;
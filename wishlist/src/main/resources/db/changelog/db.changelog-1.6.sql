@@ -0,0 +1,31 @@
+--liquibase formatted sql
+
+--changeset ataraxii:12
+ALTER TABLE item ADD COLUMN IF NOT EXISTS updated_at timestamptz NOT NULL DEFAULT now();
+ALTER TABLE item_wishlist ADD COLUMN IF NOT EXISTS updated_at timestamptz NOT NULL DEFAULT now();
+
+--changeset ataraxii:13
+CREATE TABLE IF NOT EXISTS sync_tombstone
+(
+    id          uuid PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id     uuid        NOT NULL,
+    entity_type varchar(16) NOT NULL,
+    entity_id   uuid        NOT NULL,
+    wishlist_id uuid,
+    deleted_at  timestamptz NOT NULL DEFAULT now()
+);
+
+--changeset ataraxii:14 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_wishlist_user_id_updated_at_id ON wishlist (user_id, updated_at, id);
+
+--changeset ataraxii:15 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_item_user_id_updated_at_id ON item (user_id, updated_at, id);
+
+--changeset ataraxii:16 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_item_wishlist_wishlist_id_updated_at_id ON item_wishlist (wishlist_id, updated_at, id);
+
+--changeset ataraxii:17 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sync_tombstone_user_id_deleted_at_id ON sync_tombstone (user_id, deleted_at, id);
+
+--changeset ataraxii:18 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sync_tombstone_deleted_at ON sync_tombstone (deleted_at);
@@ -0,0 +1,24 @@
+--liquibase formatted sql
+
+--changeset ataraxii:19 splitStatements:false
+-- UUIDv7 для вставок в обход приложения (в PostgreSQL 15 встроенной uuidv7() нет):
+-- первые 48 бит - время в миллисекундах, версия 7 выставляется поверх случайного v4
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid
+    LANGUAGE sql
+    VOLATILE
+AS
+$$
+SELECT encode(
+               set_bit(
+                       set_bit(
+                               overlay(uuid_send(gen_random_uuid())
+                                       placing substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                                       FROM 1 FOR 6),
+                               52, 1),
+                       53, 1),
+               'hex')::uuid;
+$$;
+
+--changeset ataraxii:20
+ALTER TABLE item ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE wishlist ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,143 @@
+package org.ataraxii.wishlist.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.ataraxii.wishlist.service.ItemSearchService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Латентность GET /app/items/search на 1 000 000 предметов в PostgreSQL со схемой из Liquibase.
+// Один "тяжелый" пользователь со 100 000 предметов и 10 000 обычных по 90 предметов.
+// Запуск: gradle :wishlist:benchmark --tests '*ItemSearchBenchmark'
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ItemSearchBenchmark {
+
+    private static final int ITEMS = 1_000_000;
+    private static final int HEAVY_USER_ITEMS = 100_000;
+    private static final int USERS = 10_000;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2_000;
+
+    private static final UUID HEAVY_USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private static final List<String> WORDS = List.of(
+            "bike", "helmet", "book", "lamp", "chair", "guitar", "camera", "watch", "phone", "laptop",
+            "kettle", "blender", "scarf", "jacket", "sneakers", "backpack", "tent", "sleeping", "bag", "knife",
+            "mug", "teapot", "puzzle", "lego", "drone", "speaker", "headphones", "keyboard", "mouse", "monitor",
+            "vinyl", "record", "poster", "candle", "plant", "pillow", "blanket", "socks", "gloves", "umbrella",
+            "wallet", "perfume", "notebook", "pen", "paint", "easel", "skates", "ball", "racket", "yoga");
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private ItemSearchService itemSearchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("logging.level.org.ataraxii.wishlist", () -> "WARN");
+    }
+
+    @BeforeAll
+    void seed() {
+        long start = System.nanoTime();
+        String words = WORDS.stream()
+                .map(word -> "'" + word + "'")
+                .reduce((a, b) -> a + "," + b)
+                .orElseThrow();
+        jdbcTemplate.execute("""
+                insert into item (id, name, url, comment, user_id)
+                select gen_random_uuid(),
+                       w[1 + (g * 7) %% %1$d] || ' ' || w[1 + (g * 13 / 7) %% %1$d],
+                       'https://example.com/' || g,
+                       case when g %% 3 = 0 then 'gift idea: ' || w[1 + (g * 31) %% %1$d] end,
+                       case when g <= %2$d then '%3$s'::uuid
+                            else ('00000000-0000-0000-0001-' || lpad((g %% %4$d)::text, 12, '0'))::uuid end
+                from generate_series(1, %5$d) g, (select array[%6$s] as w) words
+                """.formatted(WORDS.size(), HEAVY_USER_ITEMS, HEAVY_USER_ID, USERS, ITEMS, words));
+        jdbcTemplate.execute("ANALYZE item");
+        System.out.printf("Загружено %d предметов за %d с%n", ITEMS, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    @AfterAll
+    void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void searchHeavyUser() {
+        Random random = new Random(42);
+        measure("тяжелый пользователь, 100 000 предметов", () -> HEAVY_USER_ID, () -> randomQuery(random));
+    }
+
+    @Test
+    void searchRegularUser() {
+        Random random = new Random(43);
+        measure("обычный пользователь, 90 предметов",
+                () -> UUID.fromString("00000000-0000-0000-0001-%012d".formatted(random.nextInt(USERS))),
+                () -> randomQuery(random));
+    }
+
+    private String randomQuery(Random random) {
+        String word = WORDS.get(random.nextInt(WORDS.size()));
+        return switch (random.nextInt(3)) {
+            // опечатка: пропущена буква
+            case 0 -> word.length() > 4 ? word.substring(0, 2) + word.substring(3) : word;
+            // начало слова
+            case 1 -> word.substring(0, Math.max(3, word.length() - 2));
+            default -> word;
+        };
+    }
+
+    private void measure(String name, Supplier<UUID> users, Supplier<String> queries) {
+        for (int i = 0; i < WARMUP; i++) {
+            itemSearchService.searchItems(users.get(), queries.get(), null, null);
+        }
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            UUID userId = users.get();
+            String query = queries.get();
+            long start = System.nanoTime();
+            itemSearchService.searchItems(userId, query, null, null);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%s: p50 %.2f мс, p95 %.2f мс, p99 %.2f мс, max %.2f мс (%d запросов)%n", name,
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / 1_000_000.0, ITERATIONS);
+    }
+
+    private double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
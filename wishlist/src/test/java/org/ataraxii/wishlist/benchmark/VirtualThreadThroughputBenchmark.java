@@ -0,0 +1,184 @@
+package org.ataraxii.wishlist.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.ataraxii.wishlist.WishlistApplication;
+import org.ataraxii.wishlist.integration.TestTokens;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Пропускная способность GET /app/wishlists/{id} на потоках Tomcat и на виртуальных потоках
+// при одинаковом пуле Hikari. Каждый режим поднимает отдельный экземпляр приложения на случайном порту.
+// Запуск: gradle :wishlist:benchmark --tests '*VirtualThreadThroughputBenchmark'
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class VirtualThreadThroughputBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final int CONCURRENCY = 1000;
+    private static final int USERS = 100;
+    private static final int ITEMS_PER_WISHLIST = 20;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+
+    private final List<UUID> wishlistIds = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+
+    private EmbeddedPostgres postgres;
+    private HttpClient httpClient;
+
+    @BeforeAll
+    void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        seed(new JdbcTemplate(dataSource));
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        // общий прогрев JIT, чтобы режим, запущенный первым, не проигрывал только из-за холодной JVM
+        try (ConfigurableApplicationContext context = start(false)) {
+            run(baseUrl(context), WARMUP);
+        }
+    }
+
+    @AfterAll
+    void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void platformThreads() throws Exception {
+        measure("потоки Tomcat", false);
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        measure("виртуальные потоки", true);
+    }
+
+    private void measure(String name, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            String baseUrl = baseUrl(context);
+            run(baseUrl, WARMUP);
+            Result result = run(baseUrl, MEASUREMENT);
+            System.out.printf("%s (пул Hikari %d, %d параллельных клиентов): %.0f запросов/с, p50 %.2f мс, p99 %.2f мс, ошибок %d%n",
+                    name, POOL_SIZE, CONCURRENCY, result.throughput(), result.p50(), result.p99(), result.errors());
+        }
+    }
+
+    private String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(WishlistApplication.class)
+                .profiles("test")
+                // аргументы командной строки, иначе их перекрывает datasource из application-test.yml
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                        "--spring.liquibase.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                        "--logging.level.org.ataraxii.wishlist=WARN");
+    }
+
+    // Держит CONCURRENCY запросов в полете, пока не истечет время
+    private Result run(String baseUrl, Duration duration) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            int user = ThreadLocalRandom.current().nextInt(USERS);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/app/wishlists/" + wishlistIds.get(user)))
+                    .header("Authorization", tokens.get(user))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            long sent = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - sent);
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(CONCURRENCY);
+        long elapsed = System.nanoTime() - start;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(sorted.length * 1_000_000_000.0 / elapsed,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get());
+    }
+
+    private double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        for (int u = 0; u < USERS; u++) {
+            UUID userId = UUID.randomUUID();
+            UUID wishlistId = UUID.randomUUID();
+            jdbcTemplate.update("insert into wishlist (id, name, shared, user_id) values (?, ?, false, ?)", wishlistId, "wishlist " + u, userId);
+            for (int i = 0; i < ITEMS_PER_WISHLIST; i++) {
+                UUID itemId = UUID.randomUUID();
+                jdbcTemplate.update("insert into item (id, name, url, price, user_id) values (?, ?, 'https://example.com', 100, ?)",
+                        itemId, "item " + i, userId);
+                jdbcTemplate.update("insert into item_wishlist (item_id, wishlist_id) values (?, ?)", itemId, wishlistId);
+            }
+            wishlistIds.add(wishlistId);
+            tokens.add(TestTokens.bearer(userId));
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private record Result(double throughput, double p50, double p99, long errors) {
+    }
+}
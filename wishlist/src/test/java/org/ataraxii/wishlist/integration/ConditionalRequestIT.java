@@ -0,0 +1,169 @@
+package org.ataraxii.wishlist.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class ConditionalRequestIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    private UUID userId;
+    private UUID wishlistId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        wishlistId = wishlistRepository.save(Wishlist.builder()
+                .name("wishlist")
+                .userId(userId)
+                .build()).getId();
+    }
+
+    @Test
+    void findWishlistById_ifNoneMatch_notModifiedUntilItemAdded() throws Exception {
+        String etag = getEtag("/app/wishlists/" + wishlistId);
+
+        mockMvc.perform(get("/app/wishlists/{id}", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        createItem("item");
+
+        mockMvc.perform(get("/app/wishlists/{id}", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("item"));
+    }
+
+    @Test
+    void findAllWishlists_ifNoneMatch_notModifiedUntilWishlistChanged() throws Exception {
+        String etag = getEtag("/app/wishlists");
+
+        mockMvc.perform(get("/app/wishlists")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        patchWishlist(null, "renamed")
+                .andExpect(status().isOk());
+
+        String newEtag = getEtag("/app/wishlists");
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    void updateWishlist_staleIfMatch_preconditionFailed() throws Exception {
+        String etag = getEtag("/app/wishlists/" + wishlistId);
+
+        String newEtag = patchWishlist(etag, "first")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("first"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        patchWishlist(etag, "second")
+                .andExpect(status().isPreconditionFailed());
+
+        assertNotEquals(etag, newEtag);
+        assertEquals("first", wishlistRepository.findById(wishlistId).orElseThrow().getName());
+    }
+
+    @Test
+    void updateWishlist_unknownWishlistWithIfMatch_notFound() throws Exception {
+        mockMvc.perform(patch("/app/wishlists/{id}", UUID.randomUUID())
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .header(HttpHeaders.IF_MATCH, "\"v0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"x\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateItem_ifMatch_appliedOnceThenPreconditionFailed() throws Exception {
+        String itemId = createItem("item");
+        String itemEtag = "\"v0\"";
+
+        mockMvc.perform(patch("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, itemId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .header(HttpHeaders.IF_MATCH, itemEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 100}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(jsonPath("$.price").value(100))
+                .andExpect(jsonPath("$.name").value("item"));
+
+        mockMvc.perform(patch("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, itemId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .header(HttpHeaders.IF_MATCH, itemEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 200}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/app/wishlists/{wishlistId}/items/{itemId}", UUID.randomUUID(), itemId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .header(HttpHeaders.IF_MATCH, "\"v1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 200}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String getEtag(String url) throws Exception {
+        return mockMvc.perform(get(url)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private ResultActions patchWishlist(String ifMatch, String name) throws Exception {
+        var request = patch("/app/wishlists/{id}", wishlistId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"" + name + "\"}");
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private String createItem(String name) throws Exception {
+        String json = mockMvc.perform(post("/app/wishlists/{id}/items", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + name + "\", \"url\": \"https://example.com\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(json, "$.id");
+    }
+}
@@ -0,0 +1,118 @@
+package org.ataraxii.wishlist.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class ItemBatchIT {
+
+    private static final int SIZE = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private ItemWishlistRepository itemWishlistRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID userId;
+    private UUID wishlistId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        wishlistId = wishlistRepository.save(Wishlist.builder()
+                .name("wishlist")
+                .userId(userId)
+                .build()).getId();
+    }
+
+    @Test
+    void createItems_batchedInsertsAndPerItemResults() throws Exception {
+        StringJoiner items = new StringJoiner(",", "{\"items\": [", "]}");
+        for (int i = 0; i < SIZE; i++) {
+            if (i == 3) {
+                items.add("{\"name\": \"\", \"url\": \"https://example.com\"}");
+            } else if (i == 7) {
+                items.add("{\"name\": \"no url\"}");
+            } else {
+                items.add("{\"name\": \"item-" + i + "\", \"url\": \"https://example.com/" + i + "\", \"price\": " + i + "}");
+            }
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/app/wishlists/{id}/items/batch", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(items.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(SIZE - 2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results.length()").value(SIZE))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].item.name").value("item-0"))
+                .andExpect(jsonPath("$.results[3].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[7].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[8].index").value(8));
+
+        long statements = statistics.getPrepareStatementCount();
+        // 1 проверка владения + 1 update версии + ~4 вызова последовательности + по 4 батча на item и item_wishlist
+        assertTrue(statements < 20, "Ожидались батчевые вставки, но выполнено " + statements + " выражений");
+        assertEquals(SIZE - 2, itemWishlistRepository.count() - countOtherLinks());
+    }
+
+    @Test
+    void createItems_foreignWishlist_notFound() throws Exception {
+        mockMvc.perform(post("/app/wishlists/{id}/items/batch", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(UUID.randomUUID()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": [{\"name\": \"item\", \"url\": \"https://example.com\"}]}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createItems_empty_badRequest() throws Exception {
+        mockMvc.perform(post("/app/wishlists/{id}/items/batch", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long countOtherLinks() {
+        return itemWishlistRepository.findAll().stream()
+                .filter(link -> !link.getWishlist().getId().equals(wishlistId))
+                .count();
+    }
+}
@@ -1,15 +1,14 @@
 package org.ataraxii.wishlist.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.servlet.http.Cookie;
-import jakarta.transaction.Transactional;
-import org.ataraxii.wishlist.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,95 +23,64 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 @ActiveProfiles("test")
 @AutoConfigureMockMvc
-@Transactional
 public class ItemControllerIT {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Nested
     class AuthorizedTests {
 
-        private String sessionId;
+        private UUID userId;
+        private String token;
 
         @BeforeEach
-        void auth() throws Exception {
-            String json = """
-                            {
-                                "username": "testuser",
-                                "password": "testpassword"
-                            }
-                    """;
-
-            mockMvc.perform(post("/api/v1/register")
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .content(json))
-                    .andExpect(status().isCreated());
-
-            MvcResult result = mockMvc.perform(post("/api/v1/login")
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .content(json))
-                    .andExpect(status().isOk())
-                    .andReturn();
-
-            sessionId = result.getResponse().getCookie("sessionId").getValue();
+        void auth() {
+            userId = UUID.randomUUID();
+            token = TestTokens.bearer(userId);
         }
 
-        UUID createWishlist() throws Exception {
+        UUID createWishlist(String token) throws Exception {
             String wishlistJson = """
                             {
                                 "name": "test-wishlist"
                             }
                     """;
 
-            MvcResult result = mockMvc.perform(post("/api/v1/wishlists")
-                            .cookie(new Cookie("sessionId", sessionId))
+            MvcResult result = mockMvc.perform(post("/app/wishlists")
+                            .header(HttpHeaders.AUTHORIZATION, token)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(wishlistJson))
+                    .andExpect(status().isCreated())
                     .andReturn();
 
             String json = result.getResponse().getContentAsString();
-            WishlistResponseDto responseDto = new ObjectMapper().readValue(json, WishlistResponseDto.class);
+            WishlistResponseDto responseDto = objectMapper.readValue(json, WishlistResponseDto.class);
             return responseDto.getId();
         }
 
-        @Test
-        void createItem_withoutWishlist_success() throws Exception {
-            String jsonItem = """
-                            {
-                                "name": "testname",
-                                "url": "testurl"
-                            }
-                    """;
-
-            mockMvc.perform(post("/api/v1/items")
-                            .cookie(new Cookie("sessionId", sessionId))
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .content(jsonItem))
-                    .andExpect(status().isCreated())
-                    .andExpect(jsonPath("$.name").value("testname"));
-        }
-
         @Test
         void createItem_withWishlist_success() throws Exception {
 
-            UUID wishlistId = createWishlist();
+            UUID wishlistId = createWishlist(token);
 
             String jsonItem = """
                             {
                                 "name": "testname",
-                                "url": "testurl",
-                                "wishlistId": "%s"
+                                "url": "testurl"
                             }
-                    """.formatted(wishlistId.toString());
+                    """;
 
-            mockMvc.perform(post("/api/v1/items")
-                            .cookie(new Cookie("sessionId", sessionId))
+            mockMvc.perform(post("/app/wishlists/{wishlistId}/items", wishlistId)
+                            .header(HttpHeaders.AUTHORIZATION, token)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(jsonItem))
                     .andExpect(status().isCreated())
                     .andExpect(jsonPath("$.name").value("testname"))
-                    .andExpect(jsonPath("$.wishlistId").value(wishlistId.toString()));
+                    .andExpect(jsonPath("$.user").value(userId.toString()));
         }
 
         @Test
@@ -123,25 +91,23 @@ public class ItemControllerIT {
             String jsonItem = """
                             {
                                 "name": "testname",
-                                "url": "testurl",
-                                "wishlistId": "%s"
+                                "url": "testurl"
                             }
-                    """.formatted(wrongWishlistId.toString());
+                    """;
 
-            mockMvc.perform(post("/api/v1/items")
-                            .cookie(new Cookie("sessionId", sessionId))
+            mockMvc.perform(post("/app/wishlists/{wishlistId}/items", wrongWishlistId)
+                            .header(HttpHeaders.AUTHORIZATION, token)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(jsonItem))
                     .andExpect(status().isNotFound())
                     .andExpect(jsonPath("$.message").value("Вишлист не найден"));
         }
-    }
-
-    @Nested
-    class UnauthorizedTests {
 
         @Test
-        void createItem_withoutWishlist_returnUnauthorized() throws Exception {
+        void createItem_withForeignWishlist_wishlistNotFound() throws Exception {
+
+            UUID foreignWishlistId = createWishlist(TestTokens.bearer(UUID.randomUUID()));
+
             String jsonItem = """
                             {
                                 "name": "testname",
@@ -149,12 +115,17 @@ public class ItemControllerIT {
                             }
                     """;
 
-            mockMvc.perform(post("/api/v1/items")
+            mockMvc.perform(post("/app/wishlists/{wishlistId}/items", foreignWishlistId)
+                            .header(HttpHeaders.AUTHORIZATION, token)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(jsonItem))
-                    .andExpect(status().isUnauthorized())
-                    .andExpect(jsonPath("$.message").value("Сессия не найдена"));
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message").value("Вишлист не найден"));
         }
+    }
+
+    @Nested
+    class UnauthorizedTests {
 
         @Test
         void createItem_withWrongWishlist_returnUnauthorized() throws Exception {
@@ -164,16 +135,15 @@ public class ItemControllerIT {
             String jsonItem = """
                             {
                                 "name": "testname",
-                                "url": "testurl",
-                                "wishlistId": "%s"
+                                "url": "testurl"
                             }
-                    """.formatted(wrongWishlistId.toString());
+                    """;
 
-            mockMvc.perform(post("/api/v1/items")
+            mockMvc.perform(post("/app/wishlists/{wishlistId}/items", wrongWishlistId)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(jsonItem))
                     .andExpect(status().isUnauthorized())
-                    .andExpect(jsonPath("$.message").value("Сессия не найдена"));
+                    .andExpect(jsonPath("$.message").value("Пользователь не авторизован"));
         }
     }
 }
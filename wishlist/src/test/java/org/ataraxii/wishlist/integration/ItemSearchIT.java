@@ -0,0 +1,131 @@
+package org.ataraxii.wishlist.integration;
+
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Поиск на H2: проверяется запасной вариант по подстроке
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class ItemSearchIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemWishlistRepository itemWishlistRepository;
+
+    private UUID userId;
+    private UUID wishlistId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        wishlistId = createWishlist(userId);
+        createItem(userId, wishlistId, "Bike", null);
+        createItem(userId, wishlistId, "Red mountain bike", null);
+        createItem(userId, wishlistId, "Helmet", "for the bike");
+        createItem(userId, wishlistId, "Book", null);
+
+        UUID otherUserId = UUID.randomUUID();
+        createItem(otherUserId, createWishlist(otherUserId), "Bike", null);
+    }
+
+    @Test
+    void searchItems_returnsRankedMatchesOfCurrentUser() throws Exception {
+        mockMvc.perform(get("/app/items/search")
+                        .param("q", "BIKE")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.items[0].item.name").value("Bike"))
+                .andExpect(jsonPath("$.items[0].item.user").value(userId.toString()))
+                .andExpect(jsonPath("$.items[0].wishlistIds[0]").value(wishlistId.toString()))
+                .andExpect(jsonPath("$.items[1].item.name").value("Red mountain bike"))
+                .andExpect(jsonPath("$.items[2].item.name").value("Helmet"))
+                .andExpect(jsonPath("$.nextPage").value(nullValue()));
+    }
+
+    @Test
+    void searchItems_paginates() throws Exception {
+        mockMvc.perform(get("/app/items/search")
+                        .param("q", "bike")
+                        .param("size", "2")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextPage").value(1));
+
+        mockMvc.perform(get("/app/items/search")
+                        .param("q", "bike")
+                        .param("size", "2")
+                        .param("page", "1")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].item.name").value("Helmet"))
+                .andExpect(jsonPath("$.nextPage").value(nullValue()));
+    }
+
+    @Test
+    void searchItems_wildcardsAreLiteral() throws Exception {
+        mockMvc.perform(get("/app/items/search")
+                        .param("q", "%")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void searchItems_blankQuery_badRequest() throws Exception {
+        mockMvc.perform(get("/app/items/search")
+                        .param("q", "  ")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private UUID createWishlist(UUID ownerId) {
+        return wishlistRepository.save(Wishlist.builder()
+                .name("wishlist")
+                .userId(ownerId)
+                .build()).getId();
+    }
+
+    private void createItem(UUID ownerId, UUID wishlistId, String name, String comment) {
+        Item item = itemRepository.save(Item.builder()
+                .name(name)
+                .url("https://example.com")
+                .comment(comment)
+                .userId(ownerId)
+                .build());
+        itemWishlistRepository.save(ItemWishlist.builder()
+                .item(item)
+                .wishlist(wishlistRepository.findById(wishlistId).orElseThrow())
+                .build());
+    }
+}
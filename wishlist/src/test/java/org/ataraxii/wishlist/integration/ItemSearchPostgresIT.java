@@ -0,0 +1,135 @@
+package org.ataraxii.wishlist.integration;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.ataraxii.wishlist.dto.item.ItemSearchResponseDto;
+import org.ataraxii.wishlist.dto.item.ItemSearchResultDto;
+import org.ataraxii.wishlist.service.ItemSearchService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Поиск на настоящем PostgreSQL со схемой из Liquibase: tsvector и pg_trgm
+@SpringBootTest
+@ActiveProfiles("test")
+public class ItemSearchPostgresIT {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private ItemSearchService itemSearchService;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemWishlistRepository itemWishlistRepository;
+
+    private UUID userId;
+    private UUID wishlistId;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        wishlistId = createWishlist(userId);
+        createItem(userId, wishlistId, "Mountain bike", null);
+        createItem(userId, wishlistId, "Helmet", "to ride the bike safely");
+        createItem(userId, wishlistId, "Headphones", "noise cancelling");
+        createItem(userId, wishlistId, "Book", null);
+
+        UUID otherUserId = UUID.randomUUID();
+        createItem(otherUserId, createWishlist(otherUserId), "Mountain bike", null);
+    }
+
+    @Test
+    void searchItems_fullTextMatchesNameAndComment() {
+        ItemSearchResponseDto response = itemSearchService.searchItems(userId, "bike", null, null);
+
+        List<String> names = names(response);
+        assertEquals(List.of("Mountain bike", "Helmet"), names);
+        assertEquals(List.of(wishlistId), response.getItems().get(0).getWishlistIds());
+        assertTrue(response.getItems().get(0).getRank() >= response.getItems().get(1).getRank());
+    }
+
+    @Test
+    void searchItems_trigramsToleratePartialAndMisspelledWords() {
+        assertEquals(List.of("Headphones"), names(itemSearchService.searchItems(userId, "headphon", null, null)));
+        assertEquals(List.of("Headphones"), names(itemSearchService.searchItems(userId, "headphnes", null, null)));
+    }
+
+    @Test
+    void searchItems_paginates() {
+        ItemSearchResponseDto first = itemSearchService.searchItems(userId, "bike", 0, 1);
+        ItemSearchResponseDto second = itemSearchService.searchItems(userId, "bike", 1, 1);
+
+        assertEquals(List.of("Mountain bike"), names(first));
+        assertEquals(1, first.getNextPage());
+        assertEquals(List.of("Helmet"), names(second));
+        assertEquals(null, second.getNextPage());
+    }
+
+    private List<String> names(ItemSearchResponseDto response) {
+        return response.getItems().stream()
+                .map(ItemSearchResultDto::getItem)
+                .map(item -> item.getName())
+                .toList();
+    }
+
+    private UUID createWishlist(UUID ownerId) {
+        return wishlistRepository.save(Wishlist.builder()
+                .name("wishlist")
+                .userId(ownerId)
+                .build()).getId();
+    }
+
+    private void createItem(UUID ownerId, UUID wishlistId, String name, String comment) {
+        Item item = itemRepository.save(Item.builder()
+                .name(name)
+                .url("https://example.com")
+                .comment(comment)
+                .userId(ownerId)
+                .build());
+        itemWishlistRepository.save(ItemWishlist.builder()
+                .item(item)
+                .wishlist(wishlistRepository.findById(wishlistId).orElseThrow())
+                .build());
+    }
+}
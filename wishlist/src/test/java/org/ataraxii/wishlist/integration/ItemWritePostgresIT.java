@@ -0,0 +1,265 @@
+package org.ataraxii.wishlist.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.ataraxii.wishlist.database.entity.SyncEntityType;
+import org.ataraxii.wishlist.database.entity.SyncTombstone;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.database.repository.SyncTombstoneRepository;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Изменение и удаление предмета на PostgreSQL: проверки владельца и вишлиста, дельта сводки и отметка
+// об удалении - в одном запросе с RETURNING, связи удаляет ON DELETE CASCADE из Liquibase
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class ItemWritePostgresIT {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemWishlistRepository itemWishlistRepository;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID userId;
+    private UUID wishlistId;
+    private UUID otherWishlistId;
+    private UUID itemId;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userId = UUID.randomUUID();
+        wishlistId = createWishlist();
+        otherWishlistId = createWishlist();
+        itemId = UUID.fromString(createItem(wishlistId, 1000));
+    }
+
+    @Test
+    void updateItem_isSingleStatement() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(patchItem(wishlistId, itemId, "{\"name\": \"renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("renamed"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        mockMvc.perform(patchItem(wishlistId, itemId, "{\"price\": 1200}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(1200))
+                .andExpect(jsonPath("$.version").value(2));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateItem_versionMismatchIsPreconditionFailed() throws Exception {
+        mockMvc.perform(patchItem(wishlistId, itemId, "{\"price\": 1500}").header(HttpHeaders.IF_MATCH, "\"v5\""))
+                .andExpect(status().isPreconditionFailed());
+        // устаревшая версия не меняет ни предмет, ни сводку
+        assertEquals(1000, itemRepository.findById(itemId).orElseThrow().getPrice());
+        assertSummary(wishlistId, 1, 1000);
+
+        mockMvc.perform(patchItem(wishlistId, itemId, "{\"price\": 1500}").header(HttpHeaders.IF_MATCH, "\"v0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        assertEquals(1500, wishlistRepository.findById(wishlistId).orElseThrow().getTotalPrice());
+    }
+
+    @Test
+    void updateItem_missingItemIsNotFound() throws Exception {
+        UUID missingId = UUID.randomUUID();
+
+        mockMvc.perform(patchItem(wishlistId, missingId, "{\"price\": 1500}"))
+                .andExpect(status().isNotFound());
+        // If-Match для несуществующего предмета - 404, а не 412
+        mockMvc.perform(patchItem(wishlistId, missingId, "{\"price\": 1500}").header(HttpHeaders.IF_MATCH, "\"v0\""))
+                .andExpect(status().isNotFound());
+
+        assertSummary(wishlistId, 1, 1000);
+    }
+
+    @Test
+    void updateItem_priceChangeUpdatesSummary() throws Exception {
+        mockMvc.perform(patchItem(wishlistId, itemId, "{\"price\": 1500}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(1500));
+
+        assertSummary(wishlistId, 1, 1500);
+    }
+
+    @Test
+    void updateItem_wrongWishlistOrOwnerIsNotFound() throws Exception {
+        mockMvc.perform(patchItem(otherWishlistId, itemId, "{\"name\": \"renamed\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patchItem(otherWishlistId, itemId, "{\"price\": 1}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, itemId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(UUID.randomUUID()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"stolen\"}"))
+                .andExpect(status().isNotFound());
+
+        assertEquals("item", itemRepository.findById(itemId).orElseThrow().getName());
+    }
+
+    @Test
+    void deleteItem_removesItemLinksAndSummary() throws Exception {
+        mockMvc.perform(delete("/app/wishlists/{wishlistId}/items/{itemId}", otherWishlistId, itemId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isNotFound());
+        assertTrue(itemRepository.existsById(itemId));
+
+        Statistics statistics = statistics();
+        mockMvc.perform(delete("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, itemId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().is2xxSuccessful());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertFalse(itemRepository.existsById(itemId));
+        assertTrue(itemWishlistRepository.findWishlistIdsByItemId(itemId).isEmpty());
+        assertSummary(wishlistId, 0, 0);
+        assertTrue(syncTombstoneRepository.findAll().stream()
+                .anyMatch(tombstone -> tombstone.getEntityId().equals(itemId)
+                        && tombstone.getEntityType() == SyncEntityType.ITEM
+                        && tombstone.getUserId().equals(userId)));
+    }
+
+    @Test
+    void deleteItem_missingItemIsNotFound() throws Exception {
+        UUID missingId = UUID.randomUUID();
+
+        mockMvc.perform(delete("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, missingId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isNotFound());
+
+        assertSummary(wishlistId, 1, 1000);
+        assertTrue(syncTombstoneRepository.findAll().stream()
+                .noneMatch(tombstone -> tombstone.getEntityId().equals(missingId)));
+    }
+
+    @Test
+    void deleteItem_keepsSummaryOfRemainingItems() throws Exception {
+        createItem(wishlistId, 250);
+        assertSummary(wishlistId, 2, 1250);
+
+        mockMvc.perform(delete("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, itemId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().is2xxSuccessful());
+
+        assertSummary(wishlistId, 1, 250);
+        assertSummary(otherWishlistId, 0, 0);
+        // ровно одна отметка, id выдан в запросе как UUIDv7
+        List<SyncTombstone> tombstones = syncTombstoneRepository.findAll().stream()
+                .filter(tombstone -> tombstone.getEntityId().equals(itemId))
+                .toList();
+        assertEquals(1, tombstones.size());
+        assertEquals(SyncEntityType.ITEM, tombstones.get(0).getEntityType());
+        assertEquals(userId, tombstones.get(0).getUserId());
+        assertEquals(7, tombstones.get(0).getId().version());
+    }
+
+    private void assertSummary(UUID wishlist, int itemCount, long totalPrice) {
+        Wishlist summary = wishlistRepository.findById(wishlist).orElseThrow();
+        assertEquals(itemCount, summary.getItemCount(), "item_count");
+        assertEquals(totalPrice, summary.getTotalPrice(), "total_price");
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private MockHttpServletRequestBuilder patchItem(UUID wishlist, UUID item, String body) {
+        return patch("/app/wishlists/{wishlistId}/items/{itemId}", wishlist, item)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+    private UUID createWishlist() throws Exception {
+        String response = mockMvc.perform(post("/app/wishlists")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"wishlist\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return UUID.fromString(JsonPath.read(response, "$.id"));
+    }
+
+    private String createItem(UUID wishlist, int price) throws Exception {
+        String response = mockMvc.perform(post("/app/wishlists/{id}/items", wishlist)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"item\", \"url\": \"https://example.com\", \"price\": " + price + "}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(response, "$.id");
+    }
+}
@@ -0,0 +1,67 @@
+package org.ataraxii.wishlist.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class PrometheusMetricsIT {
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheus_exposesRequestDatabaseAndJwtMetricsWithoutIds() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String response = mockMvc.perform(post("/app/wishlists")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"wishlist\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String wishlistId = JsonPath.read(response, "$.id");
+        mockMvc.perform(get("/app/wishlists/{id}", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/app/wishlists")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+
+        // без токена - так ходит Prometheus
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "гистограмма по эндпоинтам");
+        assertTrue(scrape.contains("uri=\"/app/wishlists/{wishlistId}\""), "шаблон пути, а не сам путь");
+        assertTrue(scrape.contains("hikaricp_connections_active{"));
+        assertTrue(scrape.contains("hikaricp_connections_pending{"));
+        assertTrue(scrape.contains("hibernate_query_executions_total{"));
+        assertTrue(scrape.contains("hibernate_entities_loads_total{"));
+        assertTrue(scrape.contains("wishlist_jwt_verification_seconds_bucket{"));
+        assertTrue(scrape.contains("wishlist_jwt_verification_seconds_count{application=\"api-service\",outcome=\"invalid\"}"));
+        assertFalse(UUID_PATTERN.matcher(scrape).find(), "идентификаторы не должны попадать в теги");
+    }
+}
@@ -0,0 +1,193 @@
+package org.ataraxii.wishlist.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Прогоняет горячие запросы репозиториев через EXPLAIN на настоящем Postgres со схемой из Liquibase.
+// Последовательное сканирование запрещено (enable_seqscan = off): если для запроса нет подходящего индекса,
+// планировщик выберет Seq Scan или другой индекс, и тест упадет
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryPlanIT {
+
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID WISHLIST_ID = UUID.fromString("00000000-0000-0000-0000-0000000000a1");
+    private static final UUID ITEM_ID = UUID.fromString("00000000-0000-0000-0000-0000000000b1");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        seed();
+    }
+
+    @AfterAll
+    void stopDatabase() throws Exception {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("WishlistRepository.findByIdAndUserId",
+                        "select * from wishlist where id = '%s' and user_id = '%s'".formatted(WISHLIST_ID, USER_ID),
+                        List.of("wishlist_pkey|idx_wishlist_user_id_id")),
+                Arguments.of("WishlistRepository.findByUserId",
+                        "select * from wishlist where user_id = '%s'".formatted(USER_ID),
+                        // без сортировки планировщику подходит любой индекс, начинающийся с user_id
+                        List.of("idx_wishlist_user_id_id|idx_wishlist_user_id_updated_at_id")),
+                Arguments.of("WishlistRepository.findByUserIdOrderByIdAsc",
+                        "select * from wishlist where user_id = '%s' order by id limit 21".formatted(USER_ID),
+                        List.of("idx_wishlist_user_id_id")),
+                Arguments.of("WishlistRepository.findByUserIdAndIdGreaterThanOrderByIdAsc",
+                        "select * from wishlist where user_id = '%s' and id > '%s' order by id limit 21".formatted(USER_ID, WISHLIST_ID),
+                        List.of("idx_wishlist_user_id_id")),
+                Arguments.of("WishlistRepository.findWithItemsByIdAndUserId",
+                        ("select * from wishlist w left join item_wishlist iw on iw.wishlist_id = w.id " +
+                                "left join item i on i.id = iw.item_id where w.id = '%s' and w.user_id = '%s'").formatted(WISHLIST_ID, USER_ID),
+                        List.of("wishlist_pkey|idx_wishlist_user_id_id", "idx_item_wishlist_wishlist_id_item_id", "item_pkey")),
+                Arguments.of("WishlistRepository.findWithItemsByIdAndSharedTrue",
+                        ("select * from wishlist w left join item_wishlist iw on iw.wishlist_id = w.id " +
+                                "left join item i on i.id = iw.item_id where w.id = '%s' and w.shared").formatted(WISHLIST_ID),
+                        List.of("wishlist_pkey", "idx_item_wishlist_wishlist_id_item_id", "item_pkey")),
+                Arguments.of("ItemRepository.findByIdAndUserId",
+                        "select * from item where id = '%s' and user_id = '%s'".formatted(ITEM_ID, USER_ID),
+                        List.of("item_pkey|idx_item_user_id_id")),
+                Arguments.of("ItemRepository.findAllByUserId",
+                        "select * from item where user_id = '%s'".formatted(USER_ID),
+                        List.of("idx_item_user_id_id|idx_item_user_id_updated_at_id")),
+                Arguments.of("ItemRepository.searchFullText",
+                        ("select i.id from item i where i.user_id = '%s' " +
+                                "and (i.search_vector @@ websearch_to_tsquery('simple', 'seed') " +
+                                "or 'seed' <%% i.name or 'seed' <%% i.comment)").formatted(USER_ID),
+                        // GIN-индексы начинаются с user_id, но при немногих предметах у пользователя выгоднее idx_item_user_id_id
+                        List.of("idx_item_user_id_id|idx_item_user_id_updated_at_id|idx_item_search_vector|idx_item_name_trgm")),
+                Arguments.of("ItemWishlistRepository.findByItemIdAndWishlistId",
+                        "select * from item_wishlist where item_id = '%s' and wishlist_id = '%s'".formatted(ITEM_ID, WISHLIST_ID),
+                        List.of("item_wishlist_item_id_wishlist_id_key|idx_item_wishlist_wishlist_id_item_id|idx_item_wishlist_wishlist_id_updated_at_id")),
+                Arguments.of("item_wishlist by wishlist_id (ON DELETE CASCADE)",
+                        "select * from item_wishlist where wishlist_id = '%s'".formatted(WISHLIST_ID),
+                        List.of("idx_item_wishlist_wishlist_id_item_id|idx_item_wishlist_wishlist_id_updated_at_id")),
+                Arguments.of("WishlistRepository.findChangedSince",
+                        ("select * from wishlist w where w.user_id = '%s' and w.updated_at >= now() - interval '1 day' " +
+                                "order by w.updated_at, w.id limit 201").formatted(USER_ID),
+                        List.of("idx_wishlist_user_id_updated_at_id")),
+                Arguments.of("ItemRepository.findChangedSince",
+                        ("select * from item i where i.user_id = '%s' and i.updated_at >= now() - interval '1 day' " +
+                                "order by i.updated_at, i.id limit 201").formatted(USER_ID),
+                        List.of("idx_item_user_id_updated_at_id")),
+                Arguments.of("ItemWishlistRepository.findChangedSince",
+                        ("select iw.* from item_wishlist iw join wishlist w on w.id = iw.wishlist_id " +
+                                "where w.user_id = '%s' and iw.updated_at >= now() - interval '1 day' " +
+                                "order by iw.updated_at, iw.id limit 201").formatted(USER_ID),
+                        List.of("idx_wishlist_user_id_id|idx_wishlist_user_id_updated_at_id",
+                                "idx_item_wishlist_wishlist_id_updated_at_id|idx_item_wishlist_wishlist_id_item_id")),
+                Arguments.of("SyncTombstoneRepository.findChangedSince",
+                        ("select * from sync_tombstone t where t.user_id = '%s' and t.deleted_at >= now() - interval '1 day' " +
+                                "order by t.deleted_at, t.id limit 201").formatted(USER_ID),
+                        List.of("idx_sync_tombstone_user_id_deleted_at_id")),
+                Arguments.of("SyncTombstoneRepository.deleteByDeletedAtBefore",
+                        "select id from sync_tombstone where deleted_at < now() - interval '30 days'",
+                        List.of("idx_sync_tombstone_deleted_at"))
+        );
+    }
+
+    // requiredIndexes: каждый элемент - один индекс или несколько допустимых через '|'
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQuery_usesIndex(String name, String sql, List<String> requiredIndexes) {
+        JsonNode plan = jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                try (ResultSet resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) " + sql)) {
+                    resultSet.next();
+                    return readPlan(resultSet.getString(1));
+                }
+            }
+        });
+
+        List<String> fullScans = new ArrayList<>();
+        Set<String> usedIndexes = new HashSet<>();
+        walk(plan, fullScans, usedIndexes);
+
+        assertTrue(fullScans.isEmpty(), name + " выполняет полное сканирование " + fullScans);
+        for (String required : requiredIndexes) {
+            assertTrue(Arrays.stream(required.split("\\|")).anyMatch(usedIndexes::contains),
+                    name + " не использует индекс " + required + ", план использует " + usedIndexes);
+        }
+    }
+
+    private JsonNode readPlan(String json) {
+        try {
+            return objectMapper.readTree(json).get(0).get("Plan");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void walk(JsonNode node, List<String> fullScans, Set<String> usedIndexes) {
+        String type = node.path("Node Type").asText();
+        boolean indexScan = "Index Scan".equals(type) || "Index Only Scan".equals(type);
+        if ("Seq Scan".equals(type) || (indexScan && !node.has("Index Cond"))) {
+            fullScans.add(type + " on " + node.path("Relation Name").asText());
+        }
+        if (node.has("Index Name")) {
+            usedIndexes.add(node.get("Index Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            walk(child, fullScans, usedIndexes);
+        }
+    }
+
+    private void seed() {
+        jdbcTemplate.update("insert into wishlist (id, name, shared, user_id) values (?, 'seed', true, ?)", WISHLIST_ID, USER_ID);
+        jdbcTemplate.update("insert into item (id, name, url, user_id) values (?, 'seed', 'https://example.com', ?)", ITEM_ID, USER_ID);
+        jdbcTemplate.update("insert into item_wishlist (item_id, wishlist_id) values (?, ?)", ITEM_ID, WISHLIST_ID);
+        for (int i = 0; i < 200; i++) {
+            UUID userId = UUID.randomUUID();
+            UUID wishlistId = UUID.randomUUID();
+            UUID itemId = UUID.randomUUID();
+            jdbcTemplate.update("insert into wishlist (id, name, shared, user_id) values (?, ?, false, ?)", wishlistId, "w" + i, userId);
+            jdbcTemplate.update("insert into item (id, name, url, user_id) values (?, ?, 'https://example.com', ?)", itemId, "i" + i, userId);
+            jdbcTemplate.update("insert into item_wishlist (item_id, wishlist_id) values (?, ?)", itemId, wishlistId);
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,242 @@
+package org.ataraxii.wishlist.integration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET-запросы читают только в read-only транзакциях и отдают соединение в пул до записи JSON.
+// На PostgreSQL: H2 подсказку Connection.setReadOnly не хранит, и проверить ее там нельзя.
+// Выгрузка /app/wishlists/export не проверяется: она намеренно пишет ответ внутри транзакции, читая курсором
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class ReadOnlyTransactionIT {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionProbe transactionProbe;
+
+    @Autowired
+    private SerializationProbe serializationProbe;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemWishlistRepository itemWishlistRepository;
+
+    private UUID userId;
+    private UUID wishlistId;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        Wishlist wishlist = wishlistRepository.save(Wishlist.builder()
+                .name("wishlist")
+                .userId(userId)
+                .shared(true)
+                .build());
+        wishlistId = wishlist.getId();
+        for (int i = 0; i < 3; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("bike " + i)
+                    .url("https://example.com/" + i)
+                    .comment("comment " + i)
+                    .userId(userId)
+                    .build());
+            itemWishlistRepository.save(ItemWishlist.builder()
+                    .item(item)
+                    .wishlist(wishlist)
+                    .build());
+        }
+        transactionProbe.begun.clear();
+        serializationProbe.writes.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/app/wishlists",
+            "/app/wishlists/{id}",
+            "/app/items/search?q=bike",
+            "/app/sync",
+            "/shared/wishlists/{id}"
+    })
+    void readEndpoint_readOnlyTransactionsReleasedBeforeSerialization(String path) throws Exception {
+        mockMvc.perform(get(path.replace("{id}", wishlistId.toString()))
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertFalse(transactionProbe.begun.isEmpty(), "запрос не открыл транзакцию");
+        for (Begun transaction : transactionProbe.begun) {
+            assertTrue(transaction.readOnly(), transaction.name() + " не read-only");
+            assertEquals(FlushMode.MANUAL, transaction.flushMode(), transaction.name());
+            // сущности загружаются без снимков для dirty checking
+            assertTrue(transaction.defaultReadOnly(), transaction.name());
+            assertTrue(transaction.jdbcReadOnly(), transaction.name());
+            // соединение в транзакции видно пулу: проверка ниже действительно заметила бы удержанное
+            assertTrue(transaction.activeConnections() > 0, transaction.name());
+        }
+
+        assertEquals(1, serializationProbe.writes.size());
+        BodyWrite write = serializationProbe.writes.get(0);
+        assertEquals(0, write.activeConnections(), "соединение не возвращено в пул до записи ответа");
+        assertFalse(write.entityManagerBound(), "EntityManager открыт на время записи ответа (open-in-view)");
+        assertFalse(write.transactionActive());
+    }
+
+    record Begun(String name, boolean readOnly, FlushMode flushMode, boolean defaultReadOnly,
+                 boolean jdbcReadOnly, int activeConnections) {
+    }
+
+    record BodyWrite(int activeConnections, boolean entityManagerBound, boolean transactionActive) {
+    }
+
+    @TestConfiguration
+    static class ProbeConfig {
+
+        @Bean
+        TransactionProbe transactionProbe(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+            return new TransactionProbe(entityManagerFactory, dataSource);
+        }
+
+        @Bean
+        SerializationProbe serializationProbe(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+            return new SerializationProbe(entityManagerFactory, dataSource);
+        }
+    }
+
+    // Состояние сессии и соединения сразу после начала каждой транзакции
+    static class TransactionProbe implements TransactionExecutionListener {
+
+        final List<Begun> begun = new CopyOnWriteArrayList<>();
+        private final EntityManagerFactory entityManagerFactory;
+        private final DataSource dataSource;
+
+        TransactionProbe(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+            this.entityManagerFactory = entityManagerFactory;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+            if (beginFailure != null) {
+                return;
+            }
+            Session session = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                    .unwrap(Session.class);
+            boolean jdbcReadOnly = session.doReturningWork(Connection::isReadOnly);
+            begun.add(new Begun(transaction.getTransactionName(), transaction.isReadOnly(),
+                    session.getHibernateFlushMode(), session.isDefaultReadOnly(), jdbcReadOnly,
+                    pool(dataSource).getActiveConnections()));
+        }
+    }
+
+    // Вызывается непосредственно перед тем, как конвертер начнет писать тело ответа
+    @ControllerAdvice
+    static class SerializationProbe implements ResponseBodyAdvice<Object> {
+
+        final List<BodyWrite> writes = new CopyOnWriteArrayList<>();
+        private final EntityManagerFactory entityManagerFactory;
+        private final DataSource dataSource;
+
+        SerializationProbe(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+            this.entityManagerFactory = entityManagerFactory;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            writes.add(new BodyWrite(pool(dataSource).getActiveConnections(),
+                    TransactionSynchronizationManager.hasResource(entityManagerFactory),
+                    TransactionSynchronizationManager.isActualTransactionActive()));
+            return body;
+        }
+    }
+
+    private static HikariPoolMXBean pool(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
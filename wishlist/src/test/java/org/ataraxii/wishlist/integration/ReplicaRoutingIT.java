@@ -0,0 +1,140 @@
+package org.ataraxii.wishlist.integration;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Основная база и "реплика" - два независимых PostgreSQL без репликации, поэтому по содержимому
+// ответа видно, откуда читал запрос
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class ReplicaRoutingIT {
+
+    private static final long LAG_TOLERANCE_MILLIS = 1000;
+
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private JdbcTemplate replicaJdbc;
+    private UUID userId;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws Exception {
+        primary = EmbeddedPostgres.builder().start();
+        replica = EmbeddedPostgres.builder().start();
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(replica.getPostgresDatabase());
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        registry.add("spring.datasource.url", () -> primary.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("wishlist.datasource.replicas[0].url", () -> replica.getJdbcUrl("postgres", "postgres"));
+        registry.add("wishlist.datasource.replicas[0].username", () -> "postgres");
+        registry.add("wishlist.datasource.lag-tolerance", () -> "PT" + LAG_TOLERANCE_MILLIS / 1000 + "S");
+    }
+
+    @AfterAll
+    static void stopDatabases() throws Exception {
+        if (primary != null) {
+            primary.close();
+        }
+        if (replica != null) {
+            replica.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        replicaJdbc = new JdbcTemplate(replica.getPostgresDatabase());
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void readOnlyRequests_goToReplica() throws Exception {
+        UUID replicaOnly = UUID.randomUUID();
+        replicaJdbc.update("insert into wishlist (id, name, shared, user_id) values (?, 'from replica', false, ?)", replicaOnly, userId);
+
+        listWishlists(userId)
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name").value("from replica"));
+        mockMvc.perform(get("/app/wishlists/{id}", replicaOnly)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void primaryReads_ignoreReplicaDespiteReadOnly() throws Exception {
+        UUID replicaOnly = UUID.randomUUID();
+        replicaJdbc.update("insert into wishlist (id, name, shared, user_id) values (?, 'from replica', true, ?)", replicaOnly, userId);
+
+        mockMvc.perform(get("/app/sync")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.wishlists", hasSize(0)));
+        mockMvc.perform(get("/shared/wishlists/{id}", replicaOnly))
+                .andExpect(status().isNotFound());
+        // после них read-only транзакции пользователя снова идут на реплику
+        listWishlists(userId)
+                .andExpect(jsonPath("$.items", hasSize(1)));
+    }
+
+    @Test
+    void writer_readsPrimaryUntilLagToleranceExpires() throws Exception {
+        mockMvc.perform(post("/app/wishlists")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"on primary\"}"))
+                .andExpect(status().isCreated());
+
+        // сразу после записи - с основной базы
+        listWishlists(userId)
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name").value("on primary"));
+        // другой пользователь не закреплен
+        listWishlists(UUID.randomUUID())
+                .andExpect(jsonPath("$.items", hasSize(0)));
+
+        Thread.sleep(LAG_TOLERANCE_MILLIS + 200);
+        // реплика этой записи так и не получила
+        listWishlists(userId)
+                .andExpect(jsonPath("$.items", hasSize(0)));
+    }
+
+    private ResultActions listWishlists(UUID caller) throws Exception {
+        return mockMvc.perform(get("/app/wishlists")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(caller)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,276 @@
+package org.ataraxii.wishlist.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.ataraxii.wishlist.database.entity.CacheRegions;
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.ataraxii.wishlist.service.WishlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Повторное чтение вишлиста владельцем обслуживается кэшем второго уровня, а записи в обход состояния
+// сущностей (нативные UPDATE/DELETE, каскад в БД) не оставляют в нем устаревших данных и сбрасывают только свои id
+@SpringBootTest(properties = "wishlist.l2-cache.enabled=true")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class SecondLevelCacheIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WishlistService wishlistService;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemWishlistRepository itemWishlistRepository;
+
+    private SqlStatementCounter counter;
+    private UUID userId;
+    private UUID wishlistId;
+    private List<UUID> itemIds;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter(mockMvc, entityManagerFactory);
+        userId = UUID.randomUUID();
+        createWishlist(3);
+    }
+
+    @Test
+    void repeatedRead_servedFromCache() throws Exception {
+        counter.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpectStatus(200);
+
+        counter.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpectStatus(200)
+                .andExpectAtMost(0);
+
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", CacheRegions.WISHLIST, "result", "hit")
+                .functionCounter();
+        assertNotNull(hits, "статистика региона wishlist");
+        assertTrue(hits.count() > 0);
+    }
+
+    @Test
+    void coldRead_singleJoinFetch() throws Exception {
+        entityManagerFactory.getCache().evictAll();
+
+        counter.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpectStatus(200)
+                .andExpectAtMost(1);
+        counter.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpectStatus(200)
+                .andExpectAtMost(0);
+    }
+
+    // Записи чужого пользователя сбрасывают в кэше только свои вишлисты и предметы
+    @Test
+    void otherUsersItemWrites_keepCacheHits() throws Exception {
+        warmUp();
+
+        UUID otherUserId = UUID.randomUUID();
+        String otherToken = TestTokens.bearer(otherUserId);
+        String otherWishlist = mockMvc.perform(post("/app/wishlists")
+                        .header(HttpHeaders.AUTHORIZATION, otherToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"other\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID otherWishlistId = UUID.fromString(JsonPath.read(otherWishlist, "$.id"));
+        String otherItem = mockMvc.perform(post("/app/wishlists/{id}/items", otherWishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, otherToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"other item\", \"url\": \"https://example.com/other\", \"price\": 5}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID otherItemId = UUID.fromString(JsonPath.read(otherItem, "$.id"));
+        mockMvc.perform(patch("/app/wishlists/{id}/items/{itemId}", otherWishlistId, otherItemId)
+                        .header(HttpHeaders.AUTHORIZATION, otherToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 7}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/app/wishlists/{id}/items/{itemId}", otherWishlistId, otherItemId)
+                        .header(HttpHeaders.AUTHORIZATION, otherToken))
+                .andExpect(status().isOk());
+
+        counter.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpectStatus(200)
+                .andExpectAtMost(0);
+    }
+
+    @Test
+    void repeatedRead_otherUser_notFound() throws Exception {
+        warmUp();
+
+        mockMvc.perform(get("/app/wishlists/{id}", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(UUID.randomUUID())))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchWishlistWithIfMatch_bulkUpdateVisible() throws Exception {
+        String etag = warmUp();
+
+        mockMvc.perform(authorized(patch("/app/wishlists/{id}", wishlistId))
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"renamed\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("renamed"));
+    }
+
+    @Test
+    void patchItem_guardedUpdateVisible() throws Exception {
+        warmUp();
+
+        mockMvc.perform(authorized(patch("/app/wishlists/{id}/items/{itemId}", wishlistId, itemIds.get(0)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"renamed item\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", hasItem("renamed item")))
+                .andExpect(jsonPath("$.items[*].name", not(hasItem("item-0"))));
+
+        // сброшены только измененный предмет и сводка его вишлиста, остальное по-прежнему в кэше
+        counter.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpectStatus(200)
+                .andExpectAtMost(0);
+    }
+
+    @Test
+    void createItems_newLinksVisible() throws Exception {
+        warmUp();
+
+        mockMvc.perform(authorized(post("/app/wishlists/{id}/items", wishlistId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"single\", \"url\": \"https://example.com/single\", \"price\": 1}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(authorized(post("/app/wishlists/{id}/items/batch", wishlistId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": [{\"name\": \"batch\", \"url\": \"https://example.com/batch\"}]}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name",
+                        containsInAnyOrder("item-0", "item-1", "item-2", "single", "batch")));
+    }
+
+    @Test
+    void deleteItem_cascadedLinkRemovalVisible() throws Exception {
+        warmUp();
+
+        mockMvc.perform(authorized(delete("/app/wishlists/{id}/items/{itemId}", wishlistId, itemIds.get(0))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[*].name", not(hasItem("item-0"))));
+    }
+
+    @Test
+    void deleteWishlist_notServedFromCache() throws Exception {
+        warmUp();
+
+        // эндпоинта удаления вишлиста пока нет
+        wishlistService.deleteWishlist(userId, wishlistId);
+
+        mockMvc.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpect(status().isNotFound());
+    }
+
+    // Два чтения: первое заполняет кэш, второе должно целиком обслуживаться им
+    private String warmUp() throws Exception {
+        counter.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpectStatus(200);
+        SqlStatementCounter.Counted cached = counter.perform(authorized(get("/app/wishlists/{id}", wishlistId)))
+                .andExpectStatus(200)
+                .andExpectAtMost(0);
+        return cached.result().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId));
+    }
+
+    private void createWishlist(int itemCount) {
+        Wishlist wishlist = wishlistRepository.save(Wishlist.builder()
+                .name("wishlist")
+                .userId(userId)
+                .itemCount(itemCount)
+                .totalPrice(10L * itemCount)
+                .build());
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(Item.builder()
+                    .name("item-" + i)
+                    .url("https://example.com/" + i)
+                    .price(10)
+                    .userId(userId)
+                    .build());
+        }
+        itemRepository.saveAll(items);
+        itemWishlistRepository.saveAll(items.stream()
+                .map(item -> ItemWishlist.builder()
+                        .item(item)
+                        .wishlist(wishlist)
+                        .build())
+                .toList());
+        wishlistId = wishlist.getId();
+        itemIds = items.stream().map(Item::getId).toList();
+        assertEquals(itemCount, itemIds.size());
+    }
+}
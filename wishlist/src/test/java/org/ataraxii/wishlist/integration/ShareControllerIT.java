@@ -0,0 +1,98 @@
+package org.ataraxii.wishlist.integration;
+
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class ShareControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    private UUID userId;
+    private UUID wishlistId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        Wishlist wishlist = wishlistRepository.save(Wishlist.builder()
+                .name("shared-wishlist")
+                .shared(true)
+                .userId(userId)
+                .build());
+        wishlistId = wishlist.getId();
+    }
+
+    @Test
+    void getSharedWishlist_matchingIfNoneMatch_returnsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/shared/wishlists/{id}", wishlistId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.name").value("shared-wishlist"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/shared/wishlists/{id}", wishlistId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getSharedWishlist_afterItemCreated_returnsNewEtag() throws Exception {
+        String etag = mockMvc.perform(get("/shared/wishlists/{id}", wishlistId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/app/wishlists/{id}/items", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "item", "url": "https://example.com"}
+                                """))
+                .andExpect(status().isCreated());
+
+        String newEtag = mockMvc.perform(get("/shared/wishlists/{id}", wishlistId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("item"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    void getSharedWishlist_afterSharingTurnedOff_returnsNotFound() throws Exception {
+        mockMvc.perform(get("/shared/wishlists/{id}", wishlistId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/wishlists/share/{id}", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/shared/wishlists/{id}", wishlistId))
+                .andExpect(status().isNotFound());
+    }
+}
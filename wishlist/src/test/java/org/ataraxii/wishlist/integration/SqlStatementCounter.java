@@ -0,0 +1,57 @@
+package org.ataraxii.wishlist.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+// Считает SQL-запросы, которые Hibernate отправил в БД за один запрос MockMvc (вместе с асинхронным
+// продолжением, если оно есть). Счетчик общий на фабрику, поэтому тесты с ним не должны идти параллельно.
+// В main нет JdbcTemplate, так что getPrepareStatementCount видит все запросы, включая нативные и bulk-UPDATE
+public final class SqlStatementCounter {
+
+    private final MockMvc mockMvc;
+    private final Statistics statistics;
+
+    public SqlStatementCounter(MockMvc mockMvc, EntityManagerFactory entityManagerFactory) {
+        this.mockMvc = mockMvc;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public Counted perform(RequestBuilder request) throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return new Counted(result, statistics.getPrepareStatementCount());
+    }
+
+    public record Counted(MvcResult result, long statements) {
+
+        public Counted andExpectStatus(int status) {
+            assertEquals(status, result.getResponse().getStatus(), "HTTP статус");
+            return this;
+        }
+
+        public Counted andExpectAtMost(long maxStatements) {
+            assertTrue(statements <= maxStatements, () -> "ожидалось не больше " + maxStatements
+                    + " SQL-запросов, выполнено " + statements + ": "
+                    + result.getRequest().getMethod() + " " + result.getRequest().getRequestURI());
+            return this;
+        }
+
+        public Counted andExpectExactly(long expectedStatements) {
+            assertEquals(expectedStatements, statements, () -> "SQL-запросов: "
+                    + result.getRequest().getMethod() + " " + result.getRequest().getRequestURI());
+            return this;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.ataraxii.wishlist.integration;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Число SQL-запросов на эндпоинт не должно зависеть от размера вишлиста: N+1 здесь
+// превращается из "медленно на проде" в упавший тест. Считаем на PostgreSQL: часть записей
+// там идет другими запросами, чем на H2
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class StatementCountIT {
+
+    // item_wishlist.id выдается из последовательности блоками по 50: иногда на вставку нужен еще один запрос
+    private static final int ID_BLOCK = 1;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemWishlistRepository itemWishlistRepository;
+
+    private static EmbeddedPostgres postgres;
+
+    private SqlStatementCounter counter;
+    private UUID userId;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter(mockMvc, entityManagerFactory);
+        userId = UUID.randomUUID();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void readEndpoints_boundedStatements(int size) throws Exception {
+        Fixture fixture = createWishlist(size);
+
+        counter.perform(authorized(get("/app/wishlists")))
+                .andExpectStatus(200)
+                .andExpectAtMost(1);
+        // вишлист вместе с товарами - одним запросом с join fetch
+        SqlStatementCounter.Counted byId = counter.perform(authorized(get("/app/wishlists/{id}", fixture.wishlistId())))
+                .andExpectStatus(200)
+                .andExpectAtMost(1);
+        String etag = byId.result().getResponse().getHeader(HttpHeaders.ETAG);
+        counter.perform(authorized(get("/app/wishlists/{id}", fixture.wishlistId()))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpectStatus(304)
+                .andExpectAtMost(1);
+        // срез без подсчета общего количества и одним запросом вишлисты всех найденных предметов
+        counter.perform(authorized(get("/app/items/search").param("q", "item")))
+                .andExpectStatus(200)
+                .andExpectExactly(2);
+        counter.perform(authorized(get("/app/wishlists/export")))
+                .andExpectStatus(200)
+                .andExpectAtMost(1);
+        // по запросу на каждый вид изменений: вишлисты, товары, связи, удаления
+        counter.perform(authorized(get("/app/sync")))
+                .andExpectStatus(200)
+                .andExpectAtMost(4);
+
+        counter.perform(authorized(patch("/wishlists/share/{id}", fixture.wishlistId())))
+                .andExpectStatus(200)
+                .andExpectAtMost(2);
+        counter.perform(get("/shared/wishlists/{id}", fixture.wishlistId()))
+                .andExpectStatus(200)
+                .andExpectAtMost(1);
+        counter.perform(authorized(delete("/wishlists/share/{id}", fixture.wishlistId())))
+                .andExpectStatus(200)
+                .andExpectAtMost(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void writeEndpoints_boundedStatements(int size) throws Exception {
+        Fixture fixture = createWishlist(size);
+
+        counter.perform(authorized(patch("/app/wishlists/{id}", fixture.wishlistId()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"renamed\"}"))
+                .andExpectStatus(200)
+                .andExpectAtMost(2);
+        // владелец (вишлист создан в обход сервиса, кэш холодный), сводка, товар, связь
+        counter.perform(authorized(post("/app/wishlists/{id}/items", fixture.wishlistId()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"new item\", \"url\": \"https://example.com/new\", \"price\": 100}"))
+                .andExpectStatus(201)
+                .andExpectAtMost(4 + ID_BLOCK);
+        // сводка и по одному батчу вставок товаров и связей
+        counter.perform(authorized(post("/app/wishlists/{id}/items/batch", fixture.wishlistId()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch(10)))
+                .andExpectStatus(200)
+                .andExpectAtMost(3 + ID_BLOCK);
+        // товар, сводка и ответ - одним UPDATE ... RETURNING
+        counter.perform(authorized(patch("/app/wishlists/{id}/items/{itemId}", fixture.wishlistId(), fixture.firstItemId()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"renamed item\", \"url\": \"https://example.com/renamed\", \"price\": 200}"))
+                .andExpectStatus(200)
+                .andExpectAtMost(1);
+        // удаление, отметка для синхронизации и сводка - одним запросом
+        counter.perform(authorized(delete("/app/wishlists/{id}/items/{itemId}", fixture.wishlistId(), fixture.firstItemId())))
+                .andExpectStatus(200)
+                .andExpectAtMost(1);
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId));
+    }
+
+    private static String batch(int count) {
+        StringBuilder json = new StringBuilder("{\"items\": [");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"name\": \"batch-").append(i).append("\", \"url\": \"https://example.com/batch\", \"price\": 10}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private Fixture createWishlist(int itemCount) {
+        Wishlist wishlist = wishlistRepository.save(Wishlist.builder()
+                .name("wishlist")
+                .userId(userId)
+                .itemCount(itemCount)
+                .totalPrice(10L * itemCount)
+                .build());
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(Item.builder()
+                    .name("item-" + i)
+                    .url("https://example.com/" + i)
+                    .price(10)
+                    .userId(userId)
+                    .build());
+        }
+        itemRepository.saveAll(items);
+        itemWishlistRepository.saveAll(items.stream()
+                .map(item -> ItemWishlist.builder()
+                        .item(item)
+                        .wishlist(wishlist)
+                        .build())
+                .toList());
+        return new Fixture(wishlist.getId(), items.get(0).getId());
+    }
+
+    private record Fixture(UUID wishlistId, UUID firstItemId) {
+    }
+}
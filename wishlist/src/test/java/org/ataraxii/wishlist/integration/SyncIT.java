@@ -0,0 +1,215 @@
+package org.ataraxii.wishlist.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import org.ataraxii.wishlist.database.entity.SyncEntityType;
+import org.ataraxii.wishlist.database.entity.SyncTombstone;
+import org.ataraxii.wishlist.database.repository.SyncTombstoneRepository;
+import org.ataraxii.wishlist.service.job.SyncTombstoneCleanupJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Без задержки окна, чтобы дельты были детерминированными
+@SpringBootTest(properties = "wishlist.sync.lag=PT0S")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class SyncIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    private SyncTombstoneCleanupJob cleanupJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void sync_fullThenDelta() throws Exception {
+        String wishlistId = createWishlist("birthday");
+        String first = createItem(wishlistId, "first");
+        String second = createItem(wishlistId, "second");
+
+        String full = sync(null, null);
+        assertEquals(Boolean.TRUE, JsonPath.read(full, "$.reset"));
+        assertEquals(Boolean.FALSE, JsonPath.read(full, "$.hasMore"));
+        assertEquals(List.of(wishlistId), JsonPath.read(full, "$.wishlists[*].id"));
+        assertEquals(Set.of(first, second), new HashSet<>(JsonPath.<List<String>>read(full, "$.items[*].id")));
+        assertEquals(2, JsonPath.<List<?>>read(full, "$.links").size());
+
+        String token = JsonPath.read(full, "$.nextToken");
+        String empty = sync(token, null);
+        assertEquals(Boolean.FALSE, JsonPath.read(empty, "$.reset"));
+        assertTrue(JsonPath.<List<?>>read(empty, "$.wishlists").isEmpty());
+        assertTrue(JsonPath.<List<?>>read(empty, "$.items").isEmpty());
+        assertTrue(JsonPath.<List<?>>read(empty, "$.deleted").isEmpty());
+
+        mockMvc.perform(patch("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, first)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"renamed\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, second)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().is2xxSuccessful());
+
+        String delta = sync(JsonPath.read(empty, "$.nextToken"), null);
+        assertEquals(List.of(first), JsonPath.read(delta, "$.items[*].id"));
+        assertEquals(List.of("renamed"), JsonPath.read(delta, "$.items[*].name"));
+        // Удаление меняет сводку вишлиста
+        assertEquals(List.of(wishlistId), JsonPath.read(delta, "$.wishlists[*].id"));
+        assertEquals(List.of(1), JsonPath.read(delta, "$.wishlists[*].itemCount"));
+        assertEquals(List.of(second), JsonPath.read(delta, "$.deleted[*].id"));
+        assertEquals(List.of("ITEM"), JsonPath.read(delta, "$.deleted[*].type"));
+    }
+
+    @Test
+    void sync_pagesWithoutLossOrDuplicates() throws Exception {
+        Set<String> expected = new HashSet<>();
+        for (int w = 0; w < 3; w++) {
+            String wishlistId = createWishlist("wishlist " + w);
+            expected.add(wishlistId);
+            for (int i = 0; i < 4; i++) {
+                expected.add(createItem(wishlistId, "item " + w + " " + i));
+            }
+        }
+
+        List<String> seen = new ArrayList<>();
+        int links = 0;
+        int pages = 0;
+        String token = null;
+        boolean hasMore = true;
+        while (hasMore) {
+            String page = sync(token, 5);
+            seen.addAll(JsonPath.read(page, "$.wishlists[*].id"));
+            seen.addAll(JsonPath.read(page, "$.items[*].id"));
+            links += JsonPath.<List<?>>read(page, "$.links").size();
+            token = JsonPath.read(page, "$.nextToken");
+            hasMore = JsonPath.read(page, "$.hasMore");
+            pages++;
+        }
+
+        assertEquals(expected.size(), seen.size());
+        assertEquals(expected, new HashSet<>(seen));
+        assertEquals(12, links);
+        assertEquals(6, pages);
+    }
+
+    @Test
+    void sync_staleTokenResets() throws Exception {
+        createWishlist("old");
+        String token = JsonPath.read(sync(null, null), "$.nextToken");
+        assertFalse(JsonPath.<Boolean>read(sync(token, null), "$.reset"));
+
+        String stale = staleToken();
+        String response = sync(stale, null);
+        assertTrue(JsonPath.<Boolean>read(response, "$.reset"));
+        assertEquals(1, JsonPath.<List<?>>read(response, "$.wishlists").size());
+    }
+
+    @Test
+    void sync_invalidTokenIsBadRequest() throws Exception {
+        mockMvc.perform(get("/app/sync")
+                        .param("since", "not-a-token")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    void cleanup_removesExpiredTombstones() {
+        UUID expiredId = syncTombstoneRepository.save(SyncTombstone.builder()
+                .userId(userId)
+                .entityType(SyncEntityType.ITEM)
+                .entityId(UUID.randomUUID())
+                .build()).getId();
+        UUID freshId = syncTombstoneRepository.save(SyncTombstone.builder()
+                .userId(userId)
+                .entityType(SyncEntityType.ITEM)
+                .entityId(UUID.randomUUID())
+                .build()).getId();
+        jdbcTemplate.update("update sync_tombstone set deleted_at = ? where id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(31))), expiredId);
+
+        assertTrue(cleanupJob.cleanup() >= 1);
+        assertFalse(syncTombstoneRepository.existsById(expiredId));
+        assertTrue(syncTombstoneRepository.existsById(freshId));
+    }
+
+    private String staleToken() {
+        long micros = Instant.now().minus(Duration.ofDays(40)).toEpochMilli() * 1000;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((micros + ":WISHLIST:").getBytes());
+    }
+
+    private String sync(String token, Integer limit) throws Exception {
+        var request = get("/app/sync")
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId));
+        if (token != null) {
+            request.param("since", token);
+        }
+        if (limit != null) {
+            request.param("limit", limit.toString());
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private String createWishlist(String name) throws Exception {
+        String response = mockMvc.perform(post("/app/wishlists")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + name + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(response, "$.id");
+    }
+
+    private String createItem(String wishlistId, String name) throws Exception {
+        String response = mockMvc.perform(post("/app/wishlists/{id}/items", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + name + "\", \"url\": \"https://example.com\", \"price\": 100}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(response, "$.id");
+    }
+}
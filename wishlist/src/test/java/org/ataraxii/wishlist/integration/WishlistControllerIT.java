@@ -1,17 +1,17 @@
 package org.ataraxii.wishlist.integration;
 
-import jakarta.servlet.http.Cookie;
-import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -20,7 +20,6 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 @ActiveProfiles("test")
 @AutoConfigureMockMvc
-@Transactional
 public class WishlistControllerIT {
 
     @Autowired
@@ -29,29 +28,11 @@ public class WishlistControllerIT {
     @Nested
     class AuthorizedTests {
 
-        private String sessionId;
+        private String token;
 
         @BeforeEach
-        void auth() throws Exception {
-            String json = """
-                            {
-                                "username": "testuser",
-                                "password": "testpassword"
-                            }
-                    """;
-
-            mockMvc.perform(post("/api/v1/register")
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .content(json))
-                    .andExpect(status().isCreated());
-
-            MvcResult result = mockMvc.perform(post("/api/v1/login")
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .content(json))
-                    .andExpect(status().isOk())
-                    .andReturn();
-
-            sessionId = result.getResponse().getCookie("sessionId").getValue();
+        void auth() {
+            token = TestTokens.bearer(UUID.randomUUID());
         }
 
         @Test
@@ -62,8 +43,8 @@ public class WishlistControllerIT {
                             }
                     """;
 
-            mockMvc.perform(post("/api/v1/wishlists")
-                            .cookie(new Cookie("sessionId", sessionId))
+            mockMvc.perform(post("/app/wishlists")
+                            .header(HttpHeaders.AUTHORIZATION, token)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(wishlistJson))
                     .andExpect(status().isCreated())
@@ -75,18 +56,18 @@ public class WishlistControllerIT {
     class UnauthorizedTests {
 
         @Test
-        void createWishlist_success() throws Exception {
+        void createWishlist_returnUnauthorized() throws Exception {
             String wishlistJson = """
                             {
                                 "name": "test-wishlist"
                             }
                     """;
 
-            mockMvc.perform(post("/api/v1/wishlists")
+            mockMvc.perform(post("/app/wishlists")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(wishlistJson))
                     .andExpect(status().isUnauthorized())
-                    .andExpect(jsonPath("$.message").value("Сессия не найдена"));
+                    .andExpect(jsonPath("$.message").value("Пользователь не авторизован"));
         }
     }
 }
@@ -0,0 +1,184 @@
+package org.ataraxii.wishlist.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.ataraxii.wishlist.service.WishlistExportService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class WishlistExportIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemWishlistRepository itemWishlistRepository;
+
+    @Autowired
+    private WishlistExportService wishlistExportService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void exportWishlists_streamsWishlistsFollowedByTheirItems() throws Exception {
+        Wishlist full = createWishlist(userId, 3);
+        Wishlist empty = createWishlist(userId, 0);
+        createWishlist(UUID.randomUUID(), 2);
+
+        MvcResult result = mockMvc.perform(get("/app/wishlists/export")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.endsWith("\n"));
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+
+        assertEquals(5, lines.size());
+        UUID currentWishlist = null;
+        int items = 0;
+        for (JsonNode line : lines) {
+            UUID wishlistId = UUID.fromString(line.get("wishlistId").asText());
+            if ("WISHLIST".equals(line.get("type").asText())) {
+                currentWishlist = wishlistId;
+                WishlistResponseDto wishlist = objectMapper.treeToValue(line.get("wishlist"), WishlistResponseDto.class);
+                assertEquals(wishlistId, wishlist.getId());
+                // сводка и время изменения выгружаются так же, как в списке вишлистов
+                Wishlist saved = wishlistId.equals(full.getId()) ? full : empty;
+                assertEquals(saved.getItemCount(), wishlist.getItemCount());
+                assertEquals(saved.getTotalPrice(), wishlist.getTotalPrice());
+                assertEquals(saved.getUpdatedAt().truncatedTo(ChronoUnit.MICROS), wishlist.getLastModifiedAt());
+            } else {
+                assertEquals("ITEM", line.get("type").asText());
+                assertEquals(currentWishlist, wishlistId);
+                assertEquals(full.getId(), wishlistId);
+                assertEquals(userId.toString(), line.get("item").get("user").asText());
+                items++;
+            }
+        }
+        assertEquals(3, items);
+        assertTrue(body.contains(empty.getId().toString()));
+    }
+
+    @Test
+    void exportWishlists_doesNotLoadEntities() throws Exception {
+        createWishlist(userId, 1000);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CountingOutputStream out = new CountingOutputStream();
+        wishlistExportService.exportWishlists(userId, out);
+
+        assertEquals(1001, out.lines);
+        // Строки читаются как DTO: контекст персистентности не наполняется сущностями
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void exportWishlists_withoutToken_unauthorized() throws Exception {
+        mockMvc.perform(get("/app/wishlists/export"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private Wishlist createWishlist(UUID ownerId, int itemCount) {
+        // сводка заполняется вручную: предметы сохраняются в обход ItemService
+        Wishlist wishlist = wishlistRepository.save(Wishlist.builder()
+                .name("wishlist")
+                .userId(ownerId)
+                .itemCount(itemCount)
+                .totalPrice(100L * itemCount * (itemCount + 1) / 2)
+                .build());
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(Item.builder()
+                    .name("item-" + i)
+                    .url("https://example.com/" + i)
+                    .price(100 * (i + 1))
+                    .userId(ownerId)
+                    .build());
+        }
+        itemRepository.saveAll(items);
+        itemWishlistRepository.saveAll(items.stream()
+                .map(item -> ItemWishlist.builder()
+                        .item(item)
+                        .wishlist(wishlist)
+                        .build())
+                .toList());
+        return wishlist;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.ataraxii.wishlist.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.service.cache.WishlistOwnerCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class WishlistOwnerCacheIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WishlistOwnerCache wishlistOwnerCache;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID userId;
+    private UUID wishlistId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userId = UUID.randomUUID();
+        String response = mockMvc.perform(post("/app/wishlists")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"wishlist\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        wishlistId = UUID.fromString(JsonPath.read(response, "$.id"));
+    }
+
+    @Test
+    void createItem_ownerCheckedWithoutLoadingWishlist() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        createItem(userId).andExpect(status().isCreated());
+
+        // ни запроса владельца, ни загрузки вишлиста: только UPDATE сводки и вставки
+        assertEquals(0, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void isOwner_loadsOnMissAndRejectsOtherUsers() {
+        wishlistOwnerCache.evict(wishlistId);
+
+        assertTrue(wishlistOwnerCache.isOwner(wishlistId, userId));
+        assertFalse(wishlistOwnerCache.isOwner(wishlistId, UUID.randomUUID()));
+        assertFalse(wishlistOwnerCache.isOwner(UUID.randomUUID(), userId));
+    }
+
+    @Test
+    void createItem_otherUsersWishlistIsNotFound() throws Exception {
+        createItem(UUID.randomUUID()).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createItem_wishlistDeletedByAnotherInstanceIsNotFound() throws Exception {
+        assertTrue(wishlistOwnerCache.isOwner(wishlistId, userId));
+        // удаление мимо этого экземпляра: запись в кэше остается
+        jdbcTemplate.update("delete from wishlist where id = ?", wishlistId);
+        long items = itemRepository.count();
+
+        createItem(userId).andExpect(status().isNotFound());
+        mockMvc.perform(post("/app/wishlists/{id}/items/batch", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": [{\"name\": \"a\", \"url\": \"u\"}]}"))
+                .andExpect(status().isNotFound());
+
+        assertEquals(items, itemRepository.count());
+        assertFalse(wishlistOwnerCache.isOwner(wishlistId, userId));
+    }
+
+    private ResultActions createItem(UUID caller) throws Exception {
+        return mockMvc.perform(post("/app/wishlists/{id}/items", wishlistId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(caller))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"item\", \"url\": \"https://example.com\", \"price\": 100}"));
+    }
+}
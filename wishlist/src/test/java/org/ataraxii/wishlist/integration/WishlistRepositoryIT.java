@@ -0,0 +1,133 @@
+package org.ataraxii.wishlist.integration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.ataraxii.common.dto.wishlist.WishlistItemsResponseDto;
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.ataraxii.wishlist.mapper.WishlistMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class WishlistRepositoryIT {
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final WishlistMapper wishlistMapper = new WishlistMapper();
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 100})
+    void findWithItemsByIdAndUserId_singleStatementRegardlessOfSize(int size) {
+        UUID userId = UUID.randomUUID();
+        Wishlist wishlist = persistWishlist(userId, size, false);
+        Statistics statistics = resetStatistics();
+
+        WishlistItemsResponseDto dto = wishlistRepository.findWithItemsByIdAndUserId(wishlist.getId(), userId)
+                .map(wishlistMapper::toDtoWithItems)
+                .orElseThrow();
+
+        assertEquals(size, dto.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 100})
+    void findWithItemsByIdAndSharedTrue_singleStatementRegardlessOfSize(int size) {
+        Wishlist wishlist = persistWishlist(UUID.randomUUID(), size, true);
+        Statistics statistics = resetStatistics();
+
+        WishlistItemsResponseDto dto = wishlistRepository.findWithItemsByIdAndSharedTrue(wishlist.getId())
+                .map(wishlistMapper::toDtoWithItems)
+                .orElseThrow();
+
+        assertEquals(size, dto.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 3})
+    void findWithItemsByIdAndSharedTrue_notShared_empty(int size) {
+        Wishlist wishlist = persistWishlist(UUID.randomUUID(), size, false);
+
+        assertEquals(false, wishlistRepository.findWithItemsByIdAndSharedTrue(wishlist.getId()).isPresent());
+    }
+
+    @Test
+    void keysetPages_coverAllWishlistsOfUserOnce() {
+        UUID userId = UUID.randomUUID();
+        Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            expected.add(persistWishlist(userId, 0, false).getId());
+        }
+        persistWishlist(UUID.randomUUID(), 0, false);
+
+        List<UUID> visited = new ArrayList<>();
+        List<Wishlist> page = wishlistRepository.findByUserIdOrderByIdAsc(userId, Limit.of(10));
+        while (!page.isEmpty()) {
+            page.forEach(wishlist -> visited.add(wishlist.getId()));
+            UUID last = page.get(page.size() - 1).getId();
+            page = wishlistRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, last, Limit.of(10));
+        }
+
+        assertEquals(25, visited.size());
+        assertEquals(expected, new HashSet<>(visited));
+    }
+
+    private Wishlist persistWishlist(UUID userId, int size, boolean shared) {
+        Wishlist wishlist = Wishlist.builder()
+                .name("test-wishlist")
+                .shared(shared)
+                .userId(userId)
+                .build();
+        entityManager.persist(wishlist);
+
+        for (int i = 0; i < size; i++) {
+            Item item = Item.builder()
+                    .name("item-" + i)
+                    .url("https://example.com/" + i)
+                    .userId(userId)
+                    .build();
+            entityManager.persist(item);
+            entityManager.persist(ItemWishlist.builder()
+                    .item(item)
+                    .wishlist(wishlist)
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return wishlist;
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,134 @@
+package org.ataraxii.wishlist.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
+import org.ataraxii.wishlist.service.job.WishlistSummaryRebuildJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class WishlistSummaryIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private WishlistSummaryRebuildJob rebuildJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+    private UUID wishlistId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        wishlistId = wishlistRepository.save(Wishlist.builder()
+                .name("wishlist")
+                .userId(userId)
+                .build()).getId();
+    }
+
+    @Test
+    void summary_followsItemChanges() throws Exception {
+        String first = createItem("{\"name\": \"first\", \"url\": \"https://example.com\", \"price\": 1000}");
+        createItem("{\"name\": \"second\", \"url\": \"https://example.com\", \"price\": 500}");
+        createItem("{\"name\": \"no price\", \"url\": \"https://example.com\"}");
+        expectSummary(3, 1500);
+
+        mockMvc.perform(post("/app/wishlists/{id}/items/batch", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": [{\"name\": \"a\", \"url\": \"u\", \"price\": 10}, {\"name\": \"b\", \"url\": \"u\", \"price\": 20}]}"))
+                .andExpect(status().isOk());
+        expectSummary(5, 1530);
+
+        patchItem(first, null, "{\"price\": 1200}");
+        expectSummary(5, 1730);
+
+        String etag = mockMvc.perform(patch("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, first)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"renamed\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        patchItem(first, etag, "{\"price\": 200}");
+        expectSummary(5, 730);
+
+        mockMvc.perform(delete("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, first)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().is2xxSuccessful());
+        expectSummary(4, 530);
+    }
+
+    @Test
+    void rebuild_fixesDriftedSummaries() throws Exception {
+        createItem("{\"name\": \"item\", \"url\": \"https://example.com\", \"price\": 700}");
+        long version = wishlistRepository.findVersionByIdAndUserId(wishlistId, userId).orElseThrow();
+
+        jdbcTemplate.update("update wishlist set item_count = 42, total_price = 1 where id = ?", wishlistId);
+
+        assertTrue(rebuildJob.rebuild() >= 1);
+        expectSummary(1, 700);
+        assertTrue(wishlistRepository.findVersionByIdAndUserId(wishlistId, userId).orElseThrow() > version);
+
+        assertEquals(0, rebuildJob.rebuild());
+    }
+
+    private String createItem(String body) throws Exception {
+        String response = mockMvc.perform(post("/app/wishlists/{id}/items", wishlistId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(response, "$.id");
+    }
+
+    private void patchItem(String itemId, String ifMatch, String body) throws Exception {
+        var request = patch("/app/wishlists/{wishlistId}/items/{itemId}", wishlistId, itemId)
+                .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        mockMvc.perform(request)
+                .andExpect(status().isOk());
+    }
+
+    private void expectSummary(int itemCount, long totalPrice) throws Exception {
+        mockMvc.perform(get("/app/wishlists")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].itemCount").value(itemCount))
+                .andExpect(jsonPath("$.items[0].totalPrice").value(totalPrice))
+                .andExpect(jsonPath("$.items[0].lastModifiedAt").exists());
+    }
+}
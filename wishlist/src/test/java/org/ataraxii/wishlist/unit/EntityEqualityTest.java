@@ -0,0 +1,89 @@
+package org.ataraxii.wishlist.unit;
+
+import org.ataraxii.wishlist.database.entity.Item;
+import org.ataraxii.wishlist.database.entity.ItemWishlist;
+import org.ataraxii.wishlist.database.entity.SyncEntityType;
+import org.ataraxii.wishlist.database.entity.SyncTombstone;
+import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityEqualityTest {
+
+    // Стоит коллекции сущности хоть раз прочитаться - тест падает, как упал бы запрос ленивой загрузки
+    private static final class UntouchableList extends AbstractList<ItemWishlist> {
+        @Override
+        public ItemWishlist get(int index) {
+            throw new AssertionError("коллекция прочитана");
+        }
+
+        @Override
+        public int size() {
+            throw new AssertionError("коллекция прочитана");
+        }
+    }
+
+    @Test
+    void equalsAndHashCode_useIdOnly() {
+        UUID id = UUID.randomUUID();
+        Wishlist first = Wishlist.builder().id(id).name("first").itemWishlist(new UntouchableList()).build();
+        Wishlist second = Wishlist.builder().id(id).name("second").itemWishlist(new UntouchableList()).build();
+        Wishlist other = Wishlist.builder().id(UUID.randomUUID()).name("first").build();
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    void unsavedEntities_equalOnlyThemselves() {
+        Item first = Item.builder().name("item").build();
+        Item second = Item.builder().name("item").build();
+
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+
+        // hashCode не зависит от id: сущность не теряется в HashSet после persist
+        Set<Item> items = new HashSet<>(Set.of(first));
+        first.setId(UUID.randomUUID());
+        assertTrue(items.contains(first));
+    }
+
+    @Test
+    void differentEntityTypes_withSameId_areNotEqual() {
+        UUID id = UUID.randomUUID();
+
+        assertNotEquals(Wishlist.builder().id(id).build(), Item.builder().id(id).build());
+    }
+
+    @Test
+    void tombstones_equalById() {
+        UUID id = UUID.randomUUID();
+        SyncTombstone first = SyncTombstone.builder().id(id).entityType(SyncEntityType.ITEM).build();
+        SyncTombstone second = SyncTombstone.builder().id(id).entityType(SyncEntityType.WISHLIST).build();
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(SyncTombstone.builder().entityType(SyncEntityType.ITEM).build(),
+                SyncTombstone.builder().entityType(SyncEntityType.ITEM).build());
+    }
+
+    @Test
+    void toString_skipsCollectionsAndLinks() {
+        Wishlist wishlist = Wishlist.builder().id(UUID.randomUUID()).name("wishlist")
+                .itemWishlist(new UntouchableList()).build();
+        Item item = Item.builder().id(UUID.randomUUID()).name("item").comment("comment")
+                .itemWishlist(new UntouchableList()).build();
+        ItemWishlist link = ItemWishlist.builder().id(1L).item(item).wishlist(wishlist).build();
+
+        assertTrue(wishlist.toString().contains("wishlist"));
+        assertFalse(item.toString().contains("comment"));
+        assertFalse(link.toString().contains("name="));
+    }
+}
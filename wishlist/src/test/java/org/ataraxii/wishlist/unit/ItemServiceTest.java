@@ -2,32 +2,48 @@ package org.ataraxii.wishlist.unit;
 
 import org.ataraxii.wishlist.database.entity.Item;
 import org.ataraxii.wishlist.database.entity.ItemWishlist;
-import org.ataraxii.wishlist.database.entity.User;
+import org.ataraxii.wishlist.database.entity.SyncEntityType;
+import org.ataraxii.wishlist.database.entity.SyncTombstone;
 import org.ataraxii.wishlist.database.entity.Wishlist;
-import org.ataraxii.wishlist.database.repository.WishlistRepository;
-import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
 import org.ataraxii.wishlist.database.repository.ItemRepository;
+import org.ataraxii.wishlist.database.repository.ItemWishlistRepository;
+import org.ataraxii.wishlist.database.repository.SyncTombstoneRepository;
+import org.ataraxii.wishlist.database.repository.WishlistRepository;
 import org.ataraxii.wishlist.dto.item.ItemDto;
 import org.ataraxii.wishlist.dto.item.ItemResponseDto;
 import org.ataraxii.wishlist.exception.NotFoundException;
+import org.ataraxii.wishlist.exception.PreconditionFailedException;
 import org.ataraxii.wishlist.mapper.ItemMapper;
 import org.ataraxii.wishlist.service.ItemService;
+import org.ataraxii.wishlist.service.cache.SecondLevelCacheInvalidator;
+import org.ataraxii.wishlist.service.cache.SharedWishlistCache;
+import org.ataraxii.wishlist.service.cache.WishlistOwnerCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
+// Без @PostConstruct флаг PostgreSQL не выставлен: PATCH и DELETE идут пошаговым путем, как на H2
 @ExtendWith(MockitoExtension.class)
 class ItemServiceTest {
 
+    private static final UUID USER_ID = UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092");
+
     @Mock
     private ItemRepository itemRepository;
 
@@ -40,304 +56,192 @@ class ItemServiceTest {
     @Mock
     private ItemMapper itemMapper;
 
+    @Mock
+    private SharedWishlistCache sharedWishlistCache;
+
+    @Mock
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Mock
+    private WishlistOwnerCache wishlistOwnerCache;
+
+    @Mock
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
     @InjectMocks
     private ItemService itemService;
 
     @Test
-    void createItem_itemNoFolder_created() {
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
+    void createItem_ownWishlist_created() {
+        UUID wishlistId = UUID.randomUUID();
 
         ItemDto dto = ItemDto.builder()
                 .name("testname")
                 .url("testurl.com/url/url")
-                .wishlistId(null)
-                .build();
-
-        Item testItem = Item.builder()
-                .name("testname")
-                .url("testurl.com/url/url")
-                .user(testUser)
+                .price(100)
+                .wishlistId(wishlistId)
                 .build();
 
         ItemResponseDto expectedResponse = ItemResponseDto.builder()
                 .name("testname")
                 .url("testurl.com/url/url")
-                .wishlistId(null)
+                .price(100)
+                .user(USER_ID)
                 .build();
 
-        when(itemRepository.save(any(Item.class))).thenReturn(testItem);
-        when(itemMapper.toDto(any(Item.class), isNull())).thenReturn(expectedResponse);
+        when(wishlistOwnerCache.isOwner(wishlistId, USER_ID)).thenReturn(true);
+        when(wishlistRepository.getReferenceById(wishlistId)).thenReturn(Wishlist.builder().id(wishlistId).build());
+        when(wishlistRepository.applyItemDelta(eq(List.of(wishlistId)), eq(1), eq(100L), any())).thenReturn(1);
+        when(itemMapper.toDto(any(Item.class))).thenReturn(expectedResponse);
 
-        ItemResponseDto actualResponse = itemService.createItem(dto, testUser);
+        ItemResponseDto actualResponse = itemService.createItem(dto, USER_ID);
 
         assertEquals(expectedResponse, actualResponse);
-        verify(itemRepository).save(any(Item.class));
-        verify(itemWishlistRepository, never()).save(any());
+        ArgumentCaptor<Item> item = ArgumentCaptor.forClass(Item.class);
+        verify(itemRepository).save(item.capture());
+        assertEquals(USER_ID, item.getValue().getUserId());
+        verify(itemWishlistRepository).save(any(ItemWishlist.class));
+        verify(sharedWishlistCache).evict(wishlistId);
     }
 
     @Test
-    void createItem_itemWithFolder_created() {
-
-        UUID folderId = UUID.randomUUID();
-
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
+    void createItem_foreignWishlist_returnNotFoundException() {
+        UUID wishlistId = UUID.randomUUID();
 
         ItemDto dto = ItemDto.builder()
                 .name("testname")
                 .url("testurl.com/url/url")
-                .wishlistId(folderId)
-                .build();
-
-        Item testItem = Item.builder()
-                .name("testname")
-                .url("testurl.com/url/url")
-                .user(testUser)
+                .wishlistId(wishlistId)
                 .build();
 
-        Wishlist testWishlist = org.ataraxii.wishlist.database.entity.Wishlist.builder()
-                .id(folderId)
-                .name("Test Folder")
-                .user(testUser)
-                .build();
+        when(wishlistOwnerCache.isOwner(wishlistId, USER_ID)).thenReturn(false);
 
-        ItemWishlist testItemWishlist = ItemWishlist.builder()
-                .item(testItem)
-                .wishlist(testWishlist)
-                .build();
+        assertThrows(NotFoundException.class, () -> itemService.createItem(dto, USER_ID));
 
-        ItemResponseDto expectedResponse = ItemResponseDto.builder()
-                .name("testname")
-                .url("testurl.com/url/url")
-                .wishlistId(folderId)
-                .build();
-
-        when(wishlistRepository.findByIdAndUser(folderId, testUser)).thenReturn(Optional.of(testWishlist));
-        when(itemRepository.save(any(Item.class))).thenReturn(testItem);
-        when(itemWishlistRepository.save(any(ItemWishlist.class))).thenReturn(testItemWishlist);
-        when(itemMapper.toDto(any(Item.class), eq(folderId))).thenReturn(expectedResponse);
-
-        ItemResponseDto actualResponse = itemService.createItem(dto, testUser);
-
-        assertEquals(expectedResponse, actualResponse);
-        verify(itemRepository).save(any(Item.class));
-        verify(wishlistRepository).findByIdAndUser(folderId, testUser);
-        verify(itemWishlistRepository).save(any(ItemWishlist.class));
+        verify(wishlistRepository, never()).applyItemDelta(anyCollection(), anyInt(), anyLong(), any());
+        verify(itemRepository, never()).save(any());
     }
 
+    // Кэш владельцев помнит вишлист, удаленный на другом экземпляре: сводка не обновилась, запись не идет
     @Test
-    void createItem_itemWithIncorrectFolderId_returnNotFoundException() {
-
-        UUID wrongFolderId = UUID.randomUUID();
-
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
+    void createItem_wishlistDeletedMeanwhile_evictsOwnerAndReturnNotFoundException() {
+        UUID wishlistId = UUID.randomUUID();
 
         ItemDto dto = ItemDto.builder()
                 .name("testname")
                 .url("testurl.com/url/url")
-                .wishlistId(wrongFolderId)
+                .wishlistId(wishlistId)
                 .build();
 
-        when(wishlistRepository.findByIdAndUser(wrongFolderId, testUser)).thenReturn(Optional.empty());
+        when(wishlistOwnerCache.isOwner(wishlistId, USER_ID)).thenReturn(true);
+        when(wishlistRepository.applyItemDelta(eq(List.of(wishlistId)), eq(1), eq(0L), any())).thenReturn(0);
 
-        assertThrows(NotFoundException.class, () -> {
-            itemService.createItem(dto, testUser);
-        });
+        assertThrows(NotFoundException.class, () -> itemService.createItem(dto, USER_ID));
 
+        verify(wishlistOwnerCache).evict(wishlistId);
         verify(itemRepository, never()).save(any());
-        verify(itemWishlistRepository, never()).save(any());
     }
 
     @Test
-    void findItemById_correctId_returnItem() {
-
+    void updateItem_correctId_returnUpdatedItem() {
+        UUID wishlistId = UUID.randomUUID();
         UUID itemId = UUID.randomUUID();
 
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
+        ItemDto dto = ItemDto.builder()
+                .name("updatedname")
                 .build();
 
-        Item testItem = Item.builder()
+        Item updatedItem = Item.builder()
                 .id(itemId)
-                .name("testname")
+                .name("updatedname")
                 .url("testurl.com/url/url")
-                .user(testUser)
+                .userId(USER_ID)
                 .build();
 
         ItemResponseDto expectedResponse = ItemResponseDto.builder()
                 .id(itemId)
-                .name("testname")
-                .url("testurl.com/url/url")
-                .user(testUser.getId())
-                .wishlistId(null)
+                .name("updatedname")
                 .build();
 
-        when(itemRepository.findByIdAndUser(itemId, testUser)).thenReturn(Optional.of(testItem));
-        when(itemMapper.toDto(any(Item.class))).thenReturn(expectedResponse);
+        when(itemRepository.updateGuarded(eq(itemId), eq(USER_ID), eq(wishlistId), isNull(),
+                eq("updatedname"), isNull(), isNull(), isNull(), isNull(), any())).thenReturn(1);
+        when(itemWishlistRepository.findWishlistIdsByItemId(itemId)).thenReturn(List.of(wishlistId));
+        when(itemRepository.findByIdAndUserId(itemId, USER_ID)).thenReturn(Optional.of(updatedItem));
+        when(itemMapper.toDto(updatedItem)).thenReturn(expectedResponse);
 
-        ItemResponseDto actualResponse = itemService.findItemById(testUser, itemId);
+        ItemResponseDto actualResponse = itemService.updateItem(USER_ID, wishlistId, itemId, dto, null);
 
         assertEquals(expectedResponse, actualResponse);
-        verify(itemRepository).findByIdAndUser(itemId, testUser);
+        // без смены цены старая цена не читается
+        verify(itemRepository, never()).lockPrice(any(), any(), any(), any());
+        verify(cacheInvalidator).invalidateItem(itemId);
+        verify(sharedWishlistCache).evict(wishlistId);
     }
 
     @Test
-    void findItemById_incorrectId_returnNotFoundException() {
-
+    void updateItem_incorrectId_returnNotFoundException() {
+        UUID wishlistId = UUID.randomUUID();
         UUID incorrectItemId = UUID.randomUUID();
 
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
-
-        when(itemRepository.findByIdAndUser(incorrectItemId, testUser)).thenReturn(Optional.empty());
-
-        assertThrows(NotFoundException.class, () -> {
-            itemService.findItemById(testUser, incorrectItemId);
-        });
-    }
-
-    @Test
-    void updateItem_correctId_returnUpdatedItem() {
-
-        UUID itemId = UUID.randomUUID();
-
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
-
-        Item testItem = Item.builder()
-                .id(itemId)
-                .name("testname")
-                .url("testurl.com/url/url")
-                .user(testUser)
-                .build();
-
-        Item updatedItem = Item.builder()
-                .id(itemId)
-                .name("updatedname")
-                .url("updatedurl.com/url/url")
-                .user(testUser)
-                .build();
-
-        ItemDto updatedItemDto = ItemDto.builder()
+        ItemDto dto = ItemDto.builder()
                 .name("updatedname")
-                .url("updatedurl.com/url/url")
                 .build();
 
-        ItemResponseDto expectedResponse = ItemResponseDto.builder()
-                .id(itemId)
-                .name(updatedItem.getName())
-                .url(updatedItem.getUrl())
-                .user(updatedItem.getUser().getId())
-                .wishlistId(null)
-                .build();
+        when(itemRepository.updateGuarded(eq(incorrectItemId), eq(USER_ID), eq(wishlistId), isNull(),
+                any(), any(), any(), any(), any(), any())).thenReturn(0);
 
-        when(itemRepository.findByIdAndUser(itemId, testUser)).thenReturn(Optional.of(testItem));
-        when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
-        when(itemMapper.toDto(any(Item.class))).thenReturn(expectedResponse);
+        assertThrows(NotFoundException.class,
+                () -> itemService.updateItem(USER_ID, wishlistId, incorrectItemId, dto, null));
 
-        ItemResponseDto actualResponse = itemService.updateItem(testUser, itemId, updatedItemDto);
-
-        assertEquals(expectedResponse, actualResponse);
-        verify(itemRepository).findByIdAndUser(itemId, testUser);
-        verify(itemRepository).save(any(Item.class));
-        verify(itemMapper).toDto(any(Item.class));
+        verify(cacheInvalidator, never()).invalidateItem(any());
     }
 
     @Test
-    void updateItem_incorrectId_returnNotFoundException() {
-
-        UUID incorrectItemId = UUID.randomUUID();
-
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
+    void updateItem_staleVersion_returnPreconditionFailedException() {
+        UUID wishlistId = UUID.randomUUID();
+        UUID itemId = UUID.randomUUID();
 
-        ItemDto updatedItemDto = ItemDto.builder()
+        ItemDto dto = ItemDto.builder()
                 .name("updatedname")
-                .url("updatedurl.com/url/url")
                 .build();
 
-        when(itemRepository.findByIdAndUser(incorrectItemId, testUser)).thenReturn(Optional.empty());
+        when(itemRepository.updateGuarded(eq(itemId), eq(USER_ID), eq(wishlistId), eq(3L),
+                any(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(itemRepository.existsInWishlist(itemId, USER_ID, wishlistId)).thenReturn(true);
 
-        assertThrows(NotFoundException.class, () -> {
-            itemService.updateItem(testUser, incorrectItemId, updatedItemDto);
-        });
-
-        verify(itemRepository, never()).save(any());
+        assertThrows(PreconditionFailedException.class,
+                () -> itemService.updateItem(USER_ID, wishlistId, itemId, dto, 3L));
     }
 
     @Test
     void deleteItem_correctId_success() {
-
+        UUID wishlistId = UUID.randomUUID();
         UUID itemId = UUID.randomUUID();
 
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
+        when(itemRepository.lockPrice(itemId, USER_ID, wishlistId, null)).thenReturn(Optional.of(100));
+        when(itemWishlistRepository.findWishlistIdsByItemId(itemId)).thenReturn(List.of(wishlistId));
+        when(itemRepository.deleteGuarded(itemId, USER_ID, wishlistId)).thenReturn(1);
 
-        Item testItem = Item.builder()
-                .id(itemId)
-                .name("testname")
-                .url("testurl.com/url/url")
-                .user(testUser)
-                .build();
-
-        when(itemRepository.findByIdAndUser(itemId, testUser)).thenReturn(Optional.of(testItem));
-
-        itemService.deleteItem(testUser, itemId);
+        itemService.deleteItem(USER_ID, wishlistId, itemId);
 
-        verify(itemRepository).delete(testItem);
+        ArgumentCaptor<SyncTombstone> tombstone = ArgumentCaptor.forClass(SyncTombstone.class);
+        verify(syncTombstoneRepository).save(tombstone.capture());
+        assertEquals(itemId, tombstone.getValue().getEntityId());
+        assertEquals(SyncEntityType.ITEM, tombstone.getValue().getEntityType());
+        verify(wishlistRepository).applyItemDelta(eq(List.of(wishlistId)), eq(-1), eq(-100L), any());
+        verify(sharedWishlistCache).evict(wishlistId);
     }
 
     @Test
     void deleteItem_incorrectId_returnNotFoundException() {
-
+        UUID wishlistId = UUID.randomUUID();
         UUID incorrectItemId = UUID.randomUUID();
 
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
-
-        when(itemRepository.findByIdAndUser(incorrectItemId, testUser)).thenReturn(Optional.empty());
+        when(itemRepository.lockPrice(incorrectItemId, USER_ID, wishlistId, null)).thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> {
-            itemService.deleteItem(testUser, incorrectItemId);
-        });
+        assertThrows(NotFoundException.class, () -> itemService.deleteItem(USER_ID, wishlistId, incorrectItemId));
 
-        verify(itemRepository, never()).delete(any());
+        verify(itemRepository, never()).deleteGuarded(any(), any(), any());
+        verify(syncTombstoneRepository, never()).save(any());
     }
 }
@@ -0,0 +1,61 @@
+package org.ataraxii.wishlist.unit;
+
+import jakarta.servlet.AsyncContext;
+import org.ataraxii.wishlist.config.RequestConcurrencyFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestConcurrencyFilterTest {
+
+    private final RequestConcurrencyFilter filter = new RequestConcurrencyFilter(1, "/actuator");
+
+    @Test
+    void asyncRequest_holdsPermitUntilCompleted() throws Exception {
+        AsyncContext export = startAsync("/app/wishlists/export");
+
+        CompletableFuture<Void> next = CompletableFuture.runAsync(() -> perform("/app/wishlists"));
+        assertThrows(TimeoutException.class, () -> next.get(300, TimeUnit.MILLISECONDS));
+
+        export.complete();
+        next.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void syncRequest_releasesPermitOnReturn() throws Exception {
+        perform("/app/wishlists");
+        CompletableFuture.runAsync(() -> perform("/app/wishlists")).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void actuator_isNotLimited() throws Exception {
+        startAsync("/app/wishlists/export");
+
+        CompletableFuture.runAsync(() -> perform("/actuator/health")).get(5, TimeUnit.SECONDS);
+        CompletableFuture.runAsync(() -> perform("/actuator")).get(5, TimeUnit.SECONDS);
+    }
+
+    private AsyncContext startAsync(String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAsyncSupported(true);
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> req.startAsync());
+        assertTrue(request.isAsyncStarted());
+        return request.getAsyncContext();
+    }
+
+    private void perform(String uri) {
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", uri), new MockHttpServletResponse(), new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.ataraxii.wishlist.unit;
+
+import org.ataraxii.wishlist.database.id.UuidV7;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void generate_setsVersionAndVariant() {
+        UUID id = UuidV7.generate();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void generate_embedsCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.generate();
+        long after = System.currentTimeMillis();
+
+        // после всплеска генераций счетчик может уйти на несколько миллисекунд вперед
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after + 1_000, "timestamp " + timestamp);
+    }
+
+    @Test
+    void generate_isStrictlyIncreasing() {
+        // больше 4096 ключей подряд - счетчик внутри миллисекунды переполняется
+        UUID previous = UuidV7.generate();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.generate();
+            assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(), next.getMostSignificantBits()) < 0,
+                    previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void generateNonSecret_sharesOrderWithGenerate() {
+        UUID secret = UuidV7.generate();
+        UUID nonSecret = UuidV7.generateNonSecret();
+
+        assertEquals(7, nonSecret.version());
+        assertEquals(2, nonSecret.variant());
+        // общий счетчик: отметки об удалении и id сущностей идут в одном порядке
+        assertTrue(Long.compareUnsigned(secret.getMostSignificantBits(), nonSecret.getMostSignificantBits()) < 0);
+    }
+}
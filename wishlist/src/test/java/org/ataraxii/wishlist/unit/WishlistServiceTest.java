@@ -1,240 +1,215 @@
 package org.ataraxii.wishlist.unit;
 
-import org.ataraxii.wishlist.database.entity.User;
+import org.ataraxii.common.dto.wishlist.WishlistItemsResponseDto;
+import org.ataraxii.common.dto.wishlist.WishlistResponseDto;
+import org.ataraxii.wishlist.database.entity.SyncEntityType;
+import org.ataraxii.wishlist.database.entity.SyncTombstone;
 import org.ataraxii.wishlist.database.entity.Wishlist;
+import org.ataraxii.wishlist.database.repository.SyncTombstoneRepository;
 import org.ataraxii.wishlist.database.repository.WishlistRepository;
 import org.ataraxii.wishlist.dto.wishlist.WishlistDto;
-import org.ataraxii.wishlist.dto.wishlist.WishlistItemsResponseDto;
-import org.ataraxii.wishlist.dto.wishlist.WishlistResponseDto;
 import org.ataraxii.wishlist.exception.NotFoundException;
+import org.ataraxii.wishlist.exception.PreconditionFailedException;
 import org.ataraxii.wishlist.mapper.WishlistMapper;
 import org.ataraxii.wishlist.service.WishlistService;
+import org.ataraxii.wishlist.service.cache.SecondLevelCacheInvalidator;
+import org.ataraxii.wishlist.service.cache.SharedWishlistCache;
+import org.ataraxii.wishlist.service.cache.WishlistOwnerCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class WishlistServiceTest {
 
+    private static final UUID USER_ID = UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092");
+
     @Mock
     private WishlistRepository wishlistRepository;
 
     @Mock
     private WishlistMapper wishlistMapper;
 
-    @InjectMocks
-    private WishlistService wishlistService;
+    @Mock
+    private SharedWishlistCache sharedWishlistCache;
 
-    @Test
-    void createFolder_success_returnWishlist() {
+    @Mock
+    private SyncTombstoneRepository syncTombstoneRepository;
 
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
+    @Mock
+    private WishlistOwnerCache wishlistOwnerCache;
 
-        WishlistDto dto = WishlistDto.builder()
-                .name("test-wishlist")
-                .build();
+    @Mock
+    private SecondLevelCacheInvalidator cacheInvalidator;
 
-        UUID folderId = UUID.randomUUID();
+    @InjectMocks
+    private WishlistService wishlistService;
 
-        Wishlist testWishlist = org.ataraxii.wishlist.database.entity.Wishlist.builder()
-                .id(folderId)
+    @Test
+    void createWishlist_success_returnWishlist() {
+        WishlistDto dto = WishlistDto.builder()
                 .name("test-wishlist")
-                .user(testUser)
                 .build();
 
         WishlistResponseDto expectedResponse = WishlistResponseDto.builder()
-                .id(folderId)
                 .name("test-wishlist")
                 .build();
 
-        when(wishlistRepository.save(any(Wishlist.class))).thenReturn(testWishlist);
         when(wishlistMapper.toDto(any(Wishlist.class))).thenReturn(expectedResponse);
 
-        WishlistResponseDto actualResponse = wishlistService.createWishlist(dto, testUser);
+        WishlistResponseDto actualResponse = wishlistService.createWishlist(dto, USER_ID);
 
         assertEquals(expectedResponse, actualResponse);
-        verify(wishlistRepository).save(any(Wishlist.class));
+        ArgumentCaptor<Wishlist> wishlist = ArgumentCaptor.forClass(Wishlist.class);
+        verify(wishlistRepository).save(wishlist.capture());
+        assertEquals("test-wishlist", wishlist.getValue().getName());
+        assertEquals(USER_ID, wishlist.getValue().getUserId());
+        // владелец запоминается сразу, чтобы создание предмета не ходило в БД
+        verify(wishlistOwnerCache).remember(wishlist.getValue().getId(), USER_ID);
     }
 
     @Test
-    void findFolderById_correctId_returnWishlist() {
-        UUID folderId = UUID.randomUUID();
-
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
+    void findWishlistById_correctId_returnWishlist() {
+        UUID wishlistId = UUID.randomUUID();
 
         Wishlist testWishlist = Wishlist.builder()
-                .id(folderId)
+                .id(wishlistId)
                 .name("test-wishlist")
-                .user(testUser)
+                .userId(USER_ID)
                 .build();
 
         WishlistItemsResponseDto expectedResponse = WishlistItemsResponseDto.builder()
-                .id(folderId)
+                .id(wishlistId)
                 .name("test-wishlist")
-                .items(null)
+                .items(List.of())
                 .build();
 
-        when(wishlistRepository.findByIdAndUser(folderId, testUser)).thenReturn(Optional.of(testWishlist));
+        when(wishlistRepository.findWithItemsByIdAndUserId(wishlistId, USER_ID)).thenReturn(Optional.of(testWishlist));
         when(wishlistMapper.toDtoWithItems(testWishlist)).thenReturn(expectedResponse);
 
-        WishlistItemsResponseDto actualResponse = wishlistService.findWishlistById(testUser, folderId);
+        WishlistItemsResponseDto actualResponse = wishlistService.findWishlistById(USER_ID, wishlistId);
 
         assertEquals(expectedResponse, actualResponse);
-        verify(wishlistRepository).findByIdAndUser(folderId, testUser);
     }
 
     @Test
     void findWishlistById_incorrectId_returnNotFoundException() {
+        UUID incorrectId = UUID.randomUUID();
 
-        UUID folderId = UUID.randomUUID();
-
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
+        when(wishlistRepository.findWithItemsByIdAndUserId(incorrectId, USER_ID)).thenReturn(Optional.empty());
 
-        when(wishlistRepository.findByIdAndUser(folderId, testUser)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> wishlistService.findWishlistById(USER_ID, incorrectId));
 
-        assertThrows(NotFoundException.class, () -> {
-            wishlistService.findWishlistById(testUser, folderId);
-        });
+        verify(wishlistMapper, never()).toDtoWithItems(any());
     }
 
     @Test
-    void updateWishlist_correctId_returnUpdatedItem() {
-
-        UUID folderId = UUID.randomUUID();
-
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
+    void updateWishlist_correctId_returnUpdatedWishlist() {
+        UUID wishlistId = UUID.randomUUID();
 
-        Wishlist testWishlist = org.ataraxii.wishlist.database.entity.Wishlist.builder()
-                .id(folderId)
+        Wishlist testWishlist = Wishlist.builder()
+                .id(wishlistId)
                 .name("test-wishlist")
-                .user(testUser)
-                .build();
-
-        Wishlist updatedWishlist = org.ataraxii.wishlist.database.entity.Wishlist.builder()
-                .id(folderId)
-                .name("updated-wishlist")
-                .user(testUser)
+                .userId(USER_ID)
                 .build();
 
-        WishlistDto updatedWishlistDto = WishlistDto.builder()
+        WishlistDto dto = WishlistDto.builder()
                 .name("updated-wishlist")
                 .build();
 
         WishlistResponseDto expectedResponse = WishlistResponseDto.builder()
-                .id(folderId)
-                .name("test-wishlist")
+                .id(wishlistId)
+                .name("updated-wishlist")
                 .build();
 
-        when(wishlistRepository.findByIdAndUser(folderId, testUser)).thenReturn(Optional.of(testWishlist));
-        when(wishlistRepository.save(any(Wishlist.class))).thenReturn(updatedWishlist);
-        when(wishlistMapper.toDto(any(Wishlist.class))).thenReturn(expectedResponse);
+        when(wishlistRepository.findByIdAndUserId(wishlistId, USER_ID)).thenReturn(Optional.of(testWishlist));
+        when(wishlistRepository.saveAndFlush(testWishlist)).thenReturn(testWishlist);
+        when(wishlistMapper.toDto(testWishlist)).thenReturn(expectedResponse);
 
-        WishlistResponseDto actualResponse = wishlistService.updateWishlist(testUser, folderId, updatedWishlistDto);
+        WishlistResponseDto actualResponse = wishlistService.updateWishlist(USER_ID, wishlistId, dto, null);
 
         assertEquals(expectedResponse, actualResponse);
-
-        verify(wishlistRepository).findByIdAndUser(folderId, testUser);
-        verify(wishlistRepository).save(any(Wishlist.class));
-        verify(wishlistMapper).toDto(any(Wishlist.class));
+        assertEquals("updated-wishlist", testWishlist.getName());
+        verify(sharedWishlistCache).evict(wishlistId);
     }
 
     @Test
     void updateWishlist_incorrectId_returnNotFoundException() {
+        UUID incorrectId = UUID.randomUUID();
 
-        UUID incorrectItemId = UUID.randomUUID();
-
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
+        WishlistDto dto = WishlistDto.builder()
+                .name("updated-wishlist")
                 .build();
 
-        WishlistDto updatedWishlistDto = WishlistDto.builder()
+        when(wishlistRepository.findByIdAndUserId(incorrectId, USER_ID)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> wishlistService.updateWishlist(USER_ID, incorrectId, dto, null));
+
+        verify(wishlistRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updateWishlist_staleVersion_returnPreconditionFailedException() {
+        UUID wishlistId = UUID.randomUUID();
+
+        WishlistDto dto = WishlistDto.builder()
                 .name("updated-wishlist")
                 .build();
 
-        when(wishlistRepository.findByIdAndUser(incorrectItemId, testUser)).thenReturn(Optional.empty());
+        when(wishlistRepository.updateIfVersionMatches(eq(wishlistId), eq(USER_ID), eq(3L),
+                eq("updated-wishlist"), any(), any(), any())).thenReturn(0);
+        when(wishlistRepository.existsByIdAndUserId(wishlistId, USER_ID)).thenReturn(true);
 
-        assertThrows(NotFoundException.class, () -> {
-            wishlistService.updateWishlist(testUser, incorrectItemId, updatedWishlistDto);
-        });
+        assertThrows(PreconditionFailedException.class,
+                () -> wishlistService.updateWishlist(USER_ID, wishlistId, dto, 3L));
 
-        verify(wishlistRepository, never()).save(any());
+        verify(sharedWishlistCache, never()).evict(any());
     }
 
     @Test
     void deleteWishlist_correctId_success() {
+        UUID wishlistId = UUID.randomUUID();
 
-        UUID folderId = UUID.randomUUID();
-
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
-
-        Wishlist testWishlist = org.ataraxii.wishlist.database.entity.Wishlist.builder()
-                .id(folderId)
+        Wishlist testWishlist = Wishlist.builder()
+                .id(wishlistId)
                 .name("test-wishlist")
-                .user(testUser)
+                .userId(USER_ID)
                 .build();
 
-        when(wishlistRepository.findByIdAndUser(folderId, testUser)).thenReturn(Optional.of(testWishlist));
+        when(wishlistRepository.findByIdAndUserId(wishlistId, USER_ID)).thenReturn(Optional.of(testWishlist));
 
-        wishlistService.deleteWishlist(testUser, folderId);
+        wishlistService.deleteWishlist(USER_ID, wishlistId);
 
-        verify(wishlistRepository).delete(any());
+        verify(wishlistRepository).delete(testWishlist);
+        ArgumentCaptor<SyncTombstone> tombstone = ArgumentCaptor.forClass(SyncTombstone.class);
+        verify(syncTombstoneRepository).save(tombstone.capture());
+        assertEquals(wishlistId, tombstone.getValue().getEntityId());
+        assertEquals(SyncEntityType.WISHLIST, tombstone.getValue().getEntityType());
+        verify(sharedWishlistCache).evict(wishlistId);
+        verify(wishlistOwnerCache).evict(wishlistId);
     }
 
     @Test
     void deleteWishlist_incorrectId_returnNotFoundException() {
+        UUID incorrectId = UUID.randomUUID();
 
-        UUID incorrectFolderId = UUID.randomUUID();
-
-        User testUser = User.builder()
-                .id(UUID.fromString("ea7c7381-a19c-49a9-92cd-d32c3db25092"))
-                .username("testuser")
-                .password("testpassword")
-                .createdAt(Instant.now())
-                .build();
-
-        when(wishlistRepository.findByIdAndUser(incorrectFolderId, testUser)).thenReturn(Optional.empty());
+        when(wishlistRepository.findByIdAndUserId(incorrectId, USER_ID)).thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> {
-            wishlistService.deleteWishlist(testUser, incorrectFolderId);
-        });
+        assertThrows(NotFoundException.class, () -> wishlistService.deleteWishlist(USER_ID, incorrectId));
 
         verify(wishlistRepository, never()).delete(any());
+        verify(syncTombstoneRepository, never()).save(any());
     }
 }